@@ -0,0 +1,119 @@
+/*
+ * This file is part of Dawn Config (formerly 'Cloth Config').
+ * Copyright (C) 2020 - 2021 shedaniel
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+
+package com.raxdiam.dawn.benchmark;
+
+import com.raxdiam.dawn.util.FieldAccessor;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link FieldAccessor} against plain reflective {@link Field} access
+ * for the object and boxed primitive fields read by the GUI providers and serializers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FieldAccessorBenchmark {
+    public static class Target {
+        private int intValue = 42;
+        private double doubleValue = 4.2;
+        private String stringValue = "dawn";
+    }
+    
+    private final Target target = new Target();
+    private Field intField;
+    private Field stringField;
+    private Field doubleField;
+    private FieldAccessor intAccessor;
+    private FieldAccessor stringAccessor;
+    private FieldAccessor doubleAccessor;
+    private int counter;
+    
+    @Setup
+    public void setup() throws NoSuchFieldException {
+        intField = Target.class.getDeclaredField("intValue");
+        stringField = Target.class.getDeclaredField("stringValue");
+        doubleField = Target.class.getDeclaredField("doubleValue");
+        intAccessor = FieldAccessor.of(intField);
+        stringAccessor = FieldAccessor.of(stringField);
+        doubleAccessor = FieldAccessor.of(doubleField);
+    }
+    
+    @Benchmark
+    public Object reflectiveGetObject() throws IllegalAccessException {
+        stringField.setAccessible(true);
+        return stringField.get(target);
+    }
+    
+    @Benchmark
+    public Object accessorGetObject() {
+        return stringAccessor.get(target);
+    }
+    
+    @Benchmark
+    public void reflectiveSetObject() throws IllegalAccessException {
+        stringField.setAccessible(true);
+        stringField.set(target, "dawn");
+    }
+    
+    @Benchmark
+    public void accessorSetObject() {
+        stringAccessor.set(target, "dawn");
+    }
+    
+    @Benchmark
+    public Object reflectiveGetInt() throws IllegalAccessException {
+        intField.setAccessible(true);
+        return intField.get(target);
+    }
+    
+    @Benchmark
+    public Object accessorGetInt() {
+        return intAccessor.get(target);
+    }
+    
+    @Benchmark
+    public void reflectiveSetInt() throws IllegalAccessException {
+        intField.setAccessible(true);
+        intField.set(target, counter++);
+    }
+    
+    @Benchmark
+    public void accessorSetInt() {
+        intAccessor.set(target, counter++);
+    }
+    
+    @Benchmark
+    public Object accessorGetDouble() {
+        return doubleAccessor.get(target);
+    }
+    
+    @Benchmark
+    public Object reflectiveGetDouble() throws IllegalAccessException {
+        doubleField.setAccessible(true);
+        return doubleField.get(target);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * This file is part of Dawn Config (formerly 'Cloth Config').
+ * Copyright (C) 2020 - 2021 shedaniel
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.raxdiam.dawn.benchmark;
+
+import com.raxdiam.dawn.api.AbstractConfigListEntry;
+import com.raxdiam.dawn.gui.DefaultGuiProviders;
+import com.raxdiam.dawn.gui.DefaultGuiTransformers;
+import com.raxdiam.dawn.gui.registry.GuiRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-field provider and transformer lookup of a {@link GuiRegistry}
+ * populated with the default providers and transformers.
+ * <p>
+ * The default providers build widgets, which requires a running client, so the
+ * lookup is driven through {@link GuiRegistry#transform} with no entries, which
+ * resolves the field the same way {@link GuiRegistry#get} does.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GuiRegistryBenchmark {
+    @Param({"10", "100", "1000", "10000"})
+    public int fields;
+    
+    private GuiRegistry registry;
+    private Field[] configFields;
+    
+    @Setup
+    public void setup() throws ClassNotFoundException {
+        registry = DefaultGuiTransformers.apply(DefaultGuiProviders.apply(new GuiRegistry()));
+        configFields = Class.forName("com.raxdiam.dawn.benchmark.generated.SyntheticConfig" + fields).getDeclaredFields();
+    }
+    
+    @Benchmark
+    public void dispatch(Blackhole blackhole) {
+        List<AbstractConfigListEntry> guis = Collections.emptyList();
+        for (Field field : configFields) {
+            blackhole.consume(registry.transform(guis, field.getName(), field, null, null, registry));
+        }
+    }
+    
+    @Benchmark
+    public void dispatchUncached(FreshRegistry fresh, Blackhole blackhole) {
+        List<AbstractConfigListEntry> guis = Collections.emptyList();
+        for (Field field : configFields) {
+            blackhole.consume(fresh.registry.transform(guis, field.getName(), field, null, null, fresh.registry));
+        }
+    }
+    
+    /**
+     * A registry that has not resolved any field yet, recreated for every invocation.
+     */
+    @State(Scope.Thread)
+    public static class FreshRegistry {
+        GuiRegistry registry;
+        
+        @Setup(Level.Invocation)
+        public void setup() {
+            registry = DefaultGuiTransformers.apply(DefaultGuiProviders.apply(new GuiRegistry()));
+        }
+    }
+}
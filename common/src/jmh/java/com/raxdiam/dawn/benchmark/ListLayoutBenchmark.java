@@ -0,0 +1,148 @@
+/*
+ * This file is part of Dawn Config (formerly 'Cloth Config').
+ * Copyright (C) 2020 - 2021 shedaniel
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.raxdiam.dawn.benchmark;
+
+import com.raxdiam.dawn.gui.widget.DynamicEntryListWidget;
+import net.minecraft.client.gui.GuiGraphics;
+import net.minecraft.client.gui.narration.NarratableEntry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the row layout math of {@link DynamicEntryListWidget}: rebuilding the
+ * row offsets, the per-frame height check and locating rows by their offset.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ListLayoutBenchmark {
+    @Param({"100", "1000", "10000", "100000"})
+    public int rows;
+    
+    private LayoutWidget widget;
+    private int[] probes;
+    private int probeIndex;
+    
+    @Setup
+    public void setup() {
+        widget = new LayoutWidget();
+        Random random = new Random(0);
+        for (int i = 0; i < rows; i++) {
+            // A mix of single line entries and taller expanded ones
+            widget.add(new LayoutEntry(random.nextInt(8) == 0 ? 24 + 22 * random.nextInt(6) : 24));
+        }
+        widget.tickList();
+        int maxPosition = widget.maxScrollPosition();
+        probes = new int[1024];
+        for (int i = 0; i < probes.length; i++) {
+            probes[i] = random.nextInt(maxPosition);
+        }
+    }
+    
+    private int nextProbe() {
+        int probe = probes[probeIndex];
+        probeIndex = (probeIndex + 1) & (probes.length - 1);
+        return probe;
+    }
+    
+    @Benchmark
+    public int rebuildLayout() {
+        widget.invalidateLayout();
+        return widget.maxScrollPosition();
+    }
+    
+    @Benchmark
+    public int frameLayout() {
+        widget.frame();
+        return widget.maxScrollPosition();
+    }
+    
+    @Benchmark
+    public int rowAtOffset() {
+        return widget.rowAt(nextProbe());
+    }
+    
+    @Benchmark
+    public int rowTop() {
+        return widget.getRowTop(nextProbe() % rows);
+    }
+    
+    static class LayoutWidget extends DynamicEntryListWidget<LayoutEntry> {
+        LayoutWidget() {
+            super(null, 400, 240, 0, 240, null);
+        }
+        
+        void add(LayoutEntry entry) {
+            addItem(entry);
+        }
+        
+        void frame() {
+            updateLayout();
+        }
+        
+        int rowAt(int offset) {
+            return getRowAtOffset(offset);
+        }
+        
+        int maxScrollPosition() {
+            return getMaxScrollPosition();
+        }
+    }
+    
+    static class LayoutEntry extends DynamicEntryListWidget.Entry<LayoutEntry> {
+        private final int height;
+        private boolean focused;
+        
+        LayoutEntry(int height) {
+            this.height = height;
+        }
+        
+        @Override
+        public void render(GuiGraphics graphics, int index, int y, int x, int entryWidth, int entryHeight, int mouseX, int mouseY, boolean isHovered, float delta) {
+        }
+        
+        @Override
+        public int getItemHeight() {
+            return height;
+        }
+        
+        @Override
+        public List<? extends NarratableEntry> narratables() {
+            return Collections.emptyList();
+        }
+        
+        @Override
+        public void setFocused(boolean focused) {
+            this.focused = focused;
+        }
+        
+        @Override
+        public boolean isFocused() {
+            return focused;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * This file is part of Dawn Config (formerly 'Cloth Config').
+ * Copyright (C) 2020 - 2021 shedaniel
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.raxdiam.dawn.benchmark;
+
+import com.raxdiam.dawn.api.AbstractConfigEntry;
+import com.raxdiam.dawn.api.AbstractConfigListEntry;
+import com.raxdiam.dawn.gui.widget.SearchIndex;
+import net.minecraft.client.gui.components.events.GuiEventListener;
+import net.minecraft.client.gui.narration.NarratableEntry;
+import net.minecraft.network.chat.Component;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matches every entry of a screen against a query, through a {@link SearchIndex}
+ * and through a plain scan of the search tags like a screen without an index does.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SearchBenchmark {
+    private static final String[] WORDS = {
+            "render", "distance", "chunk", "entity", "shadow", "color", "particle", "sound",
+            "volume", "block", "outline", "cloud", "height", "fog", "biome", "blend",
+            "mipmap", "level", "gui", "scale", "tooltip", "delay", "smooth", "lighting"
+    };
+    private static final String[][] QUERIES = {
+            {"r"}, {"re"}, {"ren"}, {"rend"}, {"render"}, {"render", "dis"}, {"sha", "col"}, {"particle", "volume"}
+    };
+    
+    @Param({"100", "1000", "10000", "100000"})
+    public int entries;
+    
+    private List<TaggedEntry> entryList;
+    private SearchIndex index;
+    private int queryIndex;
+    
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        entryList = new ArrayList<>(entries);
+        for (int i = 0; i < entries; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+            entryList.add(new TaggedEntry(name));
+        }
+        index = SearchIndex.build(List.of(entryList));
+    }
+    
+    private String[] nextQuery() {
+        // Cycle through the queries so the index can't answer from its last result
+        String[] query = QUERIES[queryIndex];
+        queryIndex = (queryIndex + 1) % QUERIES.length;
+        return query;
+    }
+    
+    @Benchmark
+    public SearchIndex buildIndex() {
+        return SearchIndex.build(List.of(entryList));
+    }
+    
+    @Benchmark
+    public int matchIndexed() {
+        String[] query = nextQuery();
+        int count = 0;
+        for (TaggedEntry entry : entryList) {
+            if (index.matches(entry, query)) count++;
+        }
+        return count;
+    }
+    
+    @Benchmark
+    public int matchScan() {
+        String[] query = nextQuery();
+        int count = 0;
+        for (TaggedEntry entry : entryList) {
+            if (matchesTags(entry.getSearchTags(), query)) count++;
+        }
+        return count;
+    }
+    
+    private static boolean matchesTags(Iterator<String> tags, String[] lowerCases) {
+        if (!tags.hasNext()) return true;
+        List<String> lowerTags = new ArrayList<>();
+        tags.forEachRemaining(tag -> lowerTags.add(tag.toLowerCase(Locale.ROOT)));
+        for (String lowerCase : lowerCases) {
+            boolean found = false;
+            for (String tag : lowerTags) {
+                if (tag.contains(lowerCase)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) return false;
+        }
+        return true;
+    }
+    
+    static class TaggedEntry extends AbstractConfigListEntry<String> {
+        TaggedEntry(String fieldName) {
+            super(Component.literal(fieldName), false);
+        }
+        
+        @Override
+        public String getValue() {
+            return "";
+        }
+        
+        @Override
+        public Optional<String> getDefaultValue() {
+            return Optional.empty();
+        }
+        
+        @Override
+        public List<? extends GuiEventListener> children() {
+            return Collections.emptyList();
+        }
+        
+        @Override
+        public List<? extends NarratableEntry> narratables() {
+            return Collections.emptyList();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * This file is part of Dawn Config (formerly 'Cloth Config').
+ * Copyright (C) 2020 - 2021 shedaniel
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.raxdiam.dawn.benchmark;
+
+import com.raxdiam.dawn.ConfigData;
+import com.raxdiam.dawn.annotation.Config;
+import com.raxdiam.dawn.serializer.ConfigSerializer;
+import com.raxdiam.dawn.serializer.NightConfigSerializer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Round trips the generated {@code SyntheticConfig} classes through {@link NightConfigSerializer}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SerializationBenchmark {
+    @Param({"10", "100", "1000", "10000"})
+    public int fields;
+    
+    private Path folder;
+    private ConfigSerializer<ConfigData> serializer;
+    private ConfigData config;
+    private Field changedField;
+    private int revision;
+    
+    @Setup
+    public void setup() throws Exception {
+        //noinspection unchecked
+        Class<ConfigData> configClass = (Class<ConfigData>) Class.forName("com.raxdiam.dawn.benchmark.generated.SyntheticConfig" + fields);
+        folder = Files.createTempDirectory("dawn-config-benchmark");
+        serializer = new NightConfigSerializer<>(configClass.getAnnotation(Config.class), configClass, folder);
+        config = serializer.createDefault();
+        changedField = configClass.getField("intField0");
+        serializer.serialize(config);
+    }
+    
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(folder)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+    
+    /**
+     * Changes a field before every write, so the file is actually written on each invocation.
+     */
+    @Benchmark
+    public void serialize() throws ConfigSerializer.SerializationException, IllegalAccessException {
+        changedField.setInt(config, ++revision);
+        serializer.serialize(config);
+    }
+    
+    /**
+     * Writes the same config again, which is skipped once the file already has its content.
+     */
+    @Benchmark
+    public void serializeUnchanged() throws ConfigSerializer.SerializationException {
+        serializer.serialize(config);
+    }
+    
+    @Benchmark
+    public ConfigData deserialize() throws ConfigSerializer.SerializationException {
+        return serializer.deserialize();
+    }
+}
@@ -31,15 +31,23 @@ import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.minecraft.client.gui.screens.Screen;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 public class AutoConfig {
     public static final String MOD_ID = "autoconfig1u";
     
-    private static final Map<Class<? extends ConfigData>, ConfigHolder<?>> holders = new HashMap<>();
+    /**
+     * Concurrent, as configs may be registered while others are preloaded.
+     */
+    private static final Map<Class<? extends ConfigData>, ConfigHolder<?>> holders = new ConcurrentHashMap<>();
     private static final Map<Class<? extends ConfigData>, GuiRegistry> guiRegistries = new HashMap<>();
     
     private AutoConfig() {
@@ -48,6 +56,27 @@ public class AutoConfig {
     public static <T extends ConfigData> ConfigHolder<T> register(
             Class<T> configClass,
             ConfigSerializer.Factory<T> serializerFactory
+    ) {
+        return register(configClass, serializerFactory, false);
+    }
+    
+    /**
+     * Registers a config like {@link #register(Class, ConfigSerializer.Factory)}, but defers loading,
+     * validating and the initial save of it until it's first accessed through its holder.
+     *
+     * @see #preload(Class[])
+     */
+    public static <T extends ConfigData> ConfigHolder<T> registerLazy(
+            Class<T> configClass,
+            ConfigSerializer.Factory<T> serializerFactory
+    ) {
+        return register(configClass, serializerFactory, true);
+    }
+    
+    private static <T extends ConfigData> ConfigHolder<T> register(
+            Class<T> configClass,
+            ConfigSerializer.Factory<T> serializerFactory,
+            boolean lazy
     ) {
         Objects.requireNonNull(configClass);
         Objects.requireNonNull(serializerFactory);
@@ -56,15 +85,17 @@ public class AutoConfig {
             throw new RuntimeException(String.format("Config '%s' already registered", configClass));
         }
         
-        Config definition = configClass.getAnnotation(Config.class);
+        Config definition = ConfigClassModel.of(configClass).getDefinition();
         
         if (definition == null) {
             throw new RuntimeException(String.format("No @Config annotation on %s!", configClass));
         }
         
         ConfigSerializer<T> serializer = serializerFactory.create(definition, configClass);
-        ConfigManager<T> manager = new ConfigManager<>(definition, configClass, serializer);
-        holders.put(configClass, manager);
+        ConfigManager<T> manager = new ConfigManager<>(definition, configClass, serializer, lazy);
+        if (holders.putIfAbsent(configClass, manager) != null) {
+            throw new RuntimeException(String.format("Config '%s' already registered", configClass));
+        }
         
         return manager;
     }
@@ -78,6 +109,45 @@ public class AutoConfig {
         }
     }
     
+    /**
+     * Loads lazily registered configs in the background, so they are ready by the time they're first accessed.
+     *
+     * @return a future completed once all the given configs are loaded
+     */
+    @SafeVarargs
+    public static CompletableFuture<Void> preload(Class<? extends ConfigData>... configClasses) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (Class<? extends ConfigData> configClass : configClasses) {
+            ConfigManager<?> manager = (ConfigManager<?>) getConfigHolder(configClass);
+            if (!manager.isLoaded()) {
+                futures.add(CompletableFuture.runAsync(manager::ensureLoaded));
+            }
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+    }
+    
+    /**
+     * Loads every lazily registered config in the background.
+     *
+     * @see #preload(Class[])
+     */
+    public static CompletableFuture<Void> preloadAll() {
+        List<Class<? extends ConfigData>> configClasses = new ArrayList<>(holders.keySet());
+        //noinspection unchecked
+        return preload(configClasses.toArray(new Class[0]));
+    }
+    
+    /**
+     * Waits for the configs saved asynchronously to be written, for at most 10 seconds.
+     * <br>
+     * Called when the game exits, mods saving configs while their own content stops may call it as well.
+     *
+     * @return whether all pending writes were done in time
+     */
+    public static boolean flushPendingWrites() {
+        return ConfigManager.flushPendingWrites(10, TimeUnit.SECONDS);
+    }
+    
     @Environment(EnvType.CLIENT)
     public static <T extends ConfigData> GuiRegistry getGuiRegistry(Class<T> configClass) {
         return guiRegistries.computeIfAbsent(configClass, n -> new GuiRegistry());
@@ -0,0 +1,234 @@
+/*
+ * This file is part of Dawn Config (formerly 'Cloth Config').
+ * Copyright (C) 2020 - 2021 shedaniel
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.raxdiam.dawn;
+
+import com.raxdiam.dawn.annotation.Config;
+import com.raxdiam.dawn.annotation.ConfigEntry;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.*;
+
+/**
+ * Immutable reflective metadata of a config class, resolved once per class and
+ * shared by the serializers, the GUI providers and validation.
+ */
+public final class ConfigClassModel {
+    private static final ClassValue<ConfigClassModel> MODELS = new ClassValue<>() {
+        @Override
+        protected ConfigClassModel computeValue(Class<?> type) {
+            return new ConfigClassModel(type);
+        }
+    };
+    
+    private final Class<?> type;
+    @Nullable
+    private final Config definition;
+    @Nullable
+    private final String i18nKey;
+    @Nullable
+    private final Config.Gui.Background background;
+    private final List<Config.Gui.CategoryBackground> categoryBackgrounds;
+    private final List<FieldModel> fields;
+    private final List<FieldModel> moduleFields;
+    private final Map<String, FieldModel> fieldsByName;
+    
+    private ConfigClassModel(Class<?> type) {
+        this.type = type;
+        this.definition = type.getAnnotation(Config.class);
+        this.i18nKey = definition == null ? null : String.format("text.autoconfig.%s", definition.name());
+        this.background = type.getAnnotation(Config.Gui.Background.class);
+        this.categoryBackgrounds = List.of(type.getAnnotationsByType(Config.Gui.CategoryBackground.class));
+        List<FieldModel> fields = new ArrayList<>();
+        List<FieldModel> moduleFields = new ArrayList<>();
+        Map<String, FieldModel> fieldsByName = new LinkedHashMap<>();
+        for (Field field : type.getDeclaredFields()) {
+            FieldModel model = new FieldModel(this, field);
+            fields.add(model);
+            fieldsByName.put(field.getName(), model);
+            if (model.isModule()) {
+                moduleFields.add(model);
+            }
+        }
+        this.fields = Collections.unmodifiableList(fields);
+        this.moduleFields = Collections.unmodifiableList(moduleFields);
+        this.fieldsByName = Collections.unmodifiableMap(fieldsByName);
+    }
+    
+    public static ConfigClassModel of(Class<?> type) {
+        return MODELS.get(type);
+    }
+    
+    /**
+     * @return the model of the given field, resolved through its declaring class
+     */
+    public static FieldModel of(Field field) {
+        FieldModel model = of(field.getDeclaringClass()).getField(field.getName());
+        if (model == null) {
+            throw new IllegalArgumentException(String.format("Field %s is not declared in %s", field, field.getDeclaringClass()));
+        }
+        return model;
+    }
+    
+    public Class<?> getType() {
+        return type;
+    }
+    
+    @Nullable
+    public Config getDefinition() {
+        return definition;
+    }
+    
+    /**
+     * @return the base translation key of the config, i.e. {@code text.autoconfig.<name>}
+     */
+    @Nullable
+    public String getI18nKey() {
+        return i18nKey;
+    }
+    
+    @Nullable
+    public Config.Gui.Background getBackground() {
+        return background;
+    }
+    
+    public List<Config.Gui.CategoryBackground> getCategoryBackgrounds() {
+        return categoryBackgrounds;
+    }
+    
+    /**
+     * @return every declared field, in declaration order
+     */
+    public List<FieldModel> getFields() {
+        return fields;
+    }
+    
+    /**
+     * @return the fields holding a {@link Config} annotated {@link ConfigData}, as used by partitioned configs
+     */
+    public List<FieldModel> getModuleFields() {
+        return moduleFields;
+    }
+    
+    @Nullable
+    public FieldModel getField(String name) {
+        return fieldsByName.get(name);
+    }
+    
+    public static final class FieldModel {
+        private final ConfigClassModel owner;
+        private final Field field;
+        private final Map<Class<? extends Annotation>, Annotation> annotations;
+        private final String category;
+        @Nullable
+        private final String i18nKey;
+        @Nullable
+        private final Class<?> elementType;
+        private final boolean module;
+        
+        private FieldModel(ConfigClassModel owner, Field field) {
+            this.owner = owner;
+            this.field = field;
+            field.trySetAccessible();
+            Map<Class<? extends Annotation>, Annotation> annotations = new HashMap<>();
+            for (Annotation annotation : field.getDeclaredAnnotations()) {
+                annotations.put(annotation.annotationType(), annotation);
+            }
+            this.annotations = Collections.unmodifiableMap(annotations);
+            ConfigEntry.Category category = field.getAnnotation(ConfigEntry.Category.class);
+            this.category = category == null ? "default" : category.value();
+            this.i18nKey = owner.i18nKey == null ? null : String.format("%s.option.%s", owner.i18nKey, field.getName());
+            this.elementType = resolveElementType(field);
+            this.module = ConfigData.class.isAssignableFrom(field.getType())
+                          && field.getType().isAnnotationPresent(Config.class);
+        }
+        
+        @Nullable
+        private static Class<?> resolveElementType(Field field) {
+            if (field.getType().isArray()) {
+                return field.getType().getComponentType();
+            }
+            if (field.getGenericType() instanceof ParameterizedType parameterized) {
+                Type[] args = parameterized.getActualTypeArguments();
+                if (args.length == 1 && args[0] instanceof Class<?> elementClass) {
+                    return elementClass;
+                }
+            }
+            return null;
+        }
+        
+        public ConfigClassModel getOwner() {
+            return owner;
+        }
+        
+        public Field getField() {
+            return field;
+        }
+        
+        public String getName() {
+            return field.getName();
+        }
+        
+        public Class<?> getType() {
+            return field.getType();
+        }
+        
+        @Nullable
+        public <A extends Annotation> A getAnnotation(Class<A> annotationClass) {
+            return annotationClass.cast(annotations.get(annotationClass));
+        }
+        
+        public boolean isAnnotationPresent(Class<? extends Annotation> annotationClass) {
+            return annotations.containsKey(annotationClass);
+        }
+        
+        /**
+         * @return the value of {@link ConfigEntry.Category}, or {@code default}
+         */
+        public String getCategory() {
+            return category;
+        }
+        
+        /**
+         * @return the component type of an array field, or the type argument of a single parameter generic field
+         */
+        @Nullable
+        public Class<?> getElementType() {
+            return elementType;
+        }
+        
+        public boolean isModule() {
+            return module;
+        }
+        
+        /**
+         * @return the translation key of this field as an option of the given base key
+         */
+        public String getI18nKey(String baseI18n) {
+            if (i18nKey != null && baseI18n.equals(owner.i18nKey)) {
+                return i18nKey;
+            }
+            return String.format("%s.option.%s", baseI18n, field.getName());
+        }
+    }
+}
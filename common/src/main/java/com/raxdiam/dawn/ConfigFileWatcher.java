@@ -0,0 +1,239 @@
+/*
+ * This file is part of Dawn Config (formerly 'Cloth Config').
+ * Copyright (C) 2020 - 2021 shedaniel
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.raxdiam.dawn;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reloads configs whose files were changed outside of the game.
+ * <p>
+ * A single thread watches the directories of every watched config. Bursts of
+ * events for a file are debounced, and a file only counts as changed if its
+ * content hash differs from the one it had when it was last loaded or saved,
+ * so the library's own writes are ignored.
+ * <p>
+ * Reloads never overlap a write of the same config, and by default they run on
+ * the config writer, after the {@link ConfigHolder#saveAsync() asynchronous saves}
+ * queued before them.
+ */
+public final class ConfigFileWatcher {
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final long DEBOUNCE_MILLIS = 500;
+    private static volatile ConfigFileWatcher instance;
+    
+    private final WatchService watchService;
+    private final Map<Path, WatchedFile> files = new ConcurrentHashMap<>();
+    private final Map<ConfigManager<?>, Watch> watches = new ConcurrentHashMap<>();
+    private final Map<Path, WatchKey> directories = new ConcurrentHashMap<>();
+    /**
+     * The time at which each file with pending events is due, only accessed by the watcher thread.
+     */
+    private final Map<Path, Long> pending = new HashMap<>();
+    
+    private ConfigFileWatcher() throws IOException {
+        this.watchService = FileSystems.getDefault().newWatchService();
+        Thread thread = new Thread(this::run, "Dawn Config Watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    /**
+     * Reloads the config whenever its files change, on the config writer.
+     */
+    public static void watch(ConfigHolder<?> holder) {
+        watch(holder, ConfigManager.writer());
+    }
+    
+    /**
+     * Reloads the config whenever its files change.
+     *
+     * @param reloadExecutor the executor {@link ConfigHolder#load()} and its listeners are run on, such as the
+     *                       game's main thread
+     */
+    public static synchronized void watch(ConfigHolder<?> holder, Executor reloadExecutor) {
+        if (!(holder instanceof ConfigManager<?> manager)) {
+            throw new IllegalArgumentException("Unsupported config holder: " + holder);
+        }
+        try {
+            if (instance == null) {
+                instance = new ConfigFileWatcher();
+            }
+            instance.add(manager, reloadExecutor);
+        } catch (IOException e) {
+            LOGGER.error("Failed to watch config '{}'", manager.getConfigClass(), e);
+        }
+    }
+    
+    public static synchronized void unwatch(ConfigHolder<?> holder) {
+        if (instance != null && holder instanceof ConfigManager<?> manager) {
+            Watch watch = instance.watches.remove(manager);
+            if (watch != null) {
+                watch.files.forEach(instance.files::remove);
+                for (Path file : watch.files) {
+                    instance.stopWatchingIfUnused(file.getParent());
+                }
+            }
+        }
+    }
+    
+    /**
+     * Records the current content of the files of a config after it was written or read by the library.
+     */
+    static void onAccessed(ConfigManager<?> manager) {
+        ConfigFileWatcher watcher = instance;
+        if (watcher != null) {
+            Watch watch = watcher.watches.get(manager);
+            if (watch != null) {
+                for (Path file : watch.files) {
+                    WatchedFile watchedFile = watcher.files.get(file);
+                    if (watchedFile != null) watchedFile.hash = hash(file);
+                }
+            }
+        }
+    }
+    
+    private void add(ConfigManager<?> manager, Executor reloadExecutor) throws IOException {
+        List<Path> paths = new ArrayList<>();
+        for (Path file : manager.getSerializer().getFiles()) {
+            paths.add(file.toAbsolutePath().normalize());
+        }
+        Watch watch = new Watch(manager, reloadExecutor, paths);
+        for (Path file : paths) {
+            Path directory = file.getParent();
+            if (!directories.containsKey(directory)) {
+                Files.createDirectories(directory);
+                directories.put(directory, directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY));
+            }
+            files.put(file, new WatchedFile(watch, hash(file)));
+        }
+        watches.put(manager, watch);
+    }
+    
+    private void stopWatchingIfUnused(Path directory) {
+        for (Path file : files.keySet()) {
+            if (file.getParent().equals(directory)) return;
+        }
+        WatchKey key = directories.remove(directory);
+        if (key != null) key.cancel();
+    }
+    
+    private void run() {
+        try {
+            while (true) {
+                WatchKey key;
+                if (pending.isEmpty()) {
+                    key = watchService.take();
+                } else {
+                    long wait = Collections.min(pending.values()) - System.currentTimeMillis();
+                    key = wait > 0 ? watchService.poll(wait, TimeUnit.MILLISECONDS) : watchService.poll();
+                }
+                if (key != null) {
+                    collectEvents(key);
+                }
+                processDue();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            LOGGER.debug("Config watcher stopped", e);
+        }
+    }
+    
+    private void collectEvents(WatchKey key) {
+        Path directory = (Path) key.watchable();
+        long due = System.currentTimeMillis() + DEBOUNCE_MILLIS;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // Events were lost, check every file of the directory
+                for (Path file : files.keySet()) {
+                    if (file.getParent().equals(directory)) pending.put(file, due);
+                }
+            } else {
+                Path file = directory.resolve((Path) event.context());
+                if (files.containsKey(file)) pending.put(file, due);
+            }
+        }
+        key.reset();
+    }
+    
+    private void processDue() {
+        long now = System.currentTimeMillis();
+        Set<Watch> changed = new LinkedHashSet<>();
+        Iterator<Map.Entry<Path, Long>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Path, Long> entry = iterator.next();
+            if (entry.getValue() > now) continue;
+            iterator.remove();
+            WatchedFile watchedFile = files.get(entry.getKey());
+            if (watchedFile == null || !Files.exists(entry.getKey())) continue;
+            byte[] hash = hash(entry.getKey());
+            if (!MessageDigest.isEqual(hash, watchedFile.hash)) {
+                changed.add(watchedFile.watch);
+            }
+        }
+        for (Watch watch : changed) {
+            watch.reloadExecutor.execute(() -> {
+                LOGGER.info("Reloading config '{}' after its files changed", watch.manager.getConfigClass());
+                watch.manager.reload();
+            });
+        }
+    }
+    
+    private static byte[] hash(Path file) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(file));
+        } catch (NoSuchFileException e) {
+            return new byte[0];
+        } catch (IOException | NoSuchAlgorithmException e) {
+            LOGGER.warn("Failed to read config file '{}'", file, e);
+            return new byte[0];
+        }
+    }
+    
+    private static class Watch {
+        final ConfigManager<?> manager;
+        final Executor reloadExecutor;
+        final List<Path> files;
+        
+        Watch(ConfigManager<?> manager, Executor reloadExecutor, List<Path> files) {
+            this.manager = manager;
+            this.reloadExecutor = reloadExecutor;
+            this.files = files;
+        }
+    }
+    
+    private static class WatchedFile {
+        final Watch watch;
+        volatile byte[] hash;
+        
+        WatchedFile(Watch watch, byte[] hash) {
+            this.watch = watch;
+            this.hash = hash;
+        }
+    }
+}
@@ -23,6 +23,8 @@ import com.raxdiam.dawn.event.ConfigSerializeEvent;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 @ApiStatus.NonExtendable
@@ -32,6 +34,24 @@ public interface ConfigHolder<T extends ConfigData> extends Supplier<T> {
 
     void save();
     
+    /**
+     * Saves a snapshot of the config on a background writer, without blocking the calling thread.
+     * <br>
+     * Saves requested while a write is still pending are coalesced, only the latest snapshot is written.
+     * Configs holding values that can't be copied into a snapshot are written on the calling thread instead.
+     *
+     * @return a future completed once the snapshot has been written, or completed exceptionally if writing failed
+     */
+    CompletableFuture<Void> saveAsync();
+    
+    boolean isAsyncSave();
+    
+    /**
+     * Sets whether {@link #save()} should behave like {@link #saveAsync()}.
+     * Disabled by default.
+     */
+    void setAsyncSave(boolean asyncSave);
+    
     boolean load();
     
     T getConfig();
@@ -58,4 +78,26 @@ public interface ConfigHolder<T extends ConfigData> extends Supplier<T> {
      * Does not save the set config to file, for that use {@link #save()}.
      */
     void setConfig(T config);
+    
+    /**
+     * Applies the updater to a copy of the current config, and atomically replaces the config with it.
+     * <br>
+     * The updater may be called more than once if the config is replaced concurrently.
+     * Does not save the updated config to file, for that use {@link #save()}.
+     *
+     * @throws IllegalArgumentException if the config holds a value that can't be copied
+     */
+    void update(Consumer<T> updater);
+    
+    boolean isSnapshotReads();
+    
+    /**
+     * Sets whether {@link #getConfig()} hands out immutable snapshots.
+     * <br>
+     * In this mode the returned config must never be modified. Changes are made through
+     * {@link #update(Consumer)} or {@link #setConfig(ConfigData)}, which publish a new snapshot,
+     * so readers on any thread always see a fully applied config without locking.
+     * Disabled by default.
+     */
+    void setSnapshotReads(boolean snapshotReads);
 }
@@ -22,17 +22,46 @@ package com.raxdiam.dawn;
 import com.raxdiam.dawn.annotation.Config;
 import com.raxdiam.dawn.event.ConfigSerializeEvent;
 import com.raxdiam.dawn.serializer.ConfigSerializer;
+import com.raxdiam.dawn.util.ConfigSnapshots;
 import net.minecraft.world.InteractionResult;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
 
 @ApiStatus.Internal
 public class ConfigManager<T extends ConfigData> implements ConfigHolder<T> {
+    private static final VarHandle CONFIG;
+    
+    static {
+        try {
+            CONFIG = MethodHandles.lookup().findVarHandle(ConfigManager.class, "config", ConfigData.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+    
+    /**
+     * Shared by all configs, the thread is only kept alive while there are writes to do.
+     * It doesn't keep the game running, pending writes are flushed by a shutdown hook instead.
+     */
+    private static final ExecutorService WRITER = new ThreadPoolExecutor(0, 1, 5, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+        Thread thread = new Thread(runnable, "Dawn Config Writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> flushPendingWrites(10, TimeUnit.SECONDS), "Dawn Config Writer Flush"));
+    }
+    
     private final Logger logger;
     private final Config definition;
     private final Class<T> configClass;
@@ -41,18 +70,72 @@ public class ConfigManager<T extends ConfigData> implements ConfigHolder<T> {
     private final List<ConfigSerializeEvent.Save<T>> saveEvent = new ArrayList<>();
     private final List<ConfigSerializeEvent.Load<T>> loadEvent = new ArrayList<>();
     
-    private T config;
+    /**
+     * The current config. Only ever replaced through volatile writes, so a
+     * published instance is safely visible to every thread reading it.
+     */
+    private volatile T config;
+    private volatile boolean snapshotReads;
+    private volatile T defaults;
+    
+    /**
+     * Guards writes to the serializer, so synchronous and background writes never overlap.
+     */
+    private final Object writeLock = new Object();
+    private volatile boolean asyncSave;
+    private T pendingSnapshot;
+    private CompletableFuture<Void> pendingWrite;
+    
+    private final Object initLock = new Object();
+    /**
+     * The thread running the initial load, so listeners it calls back into don't start it again.
+     */
+    private Thread initializingThread;
     
     ConfigManager(Config definition, Class<T> configClass, ConfigSerializer<T> serializer) {
+        this(definition, configClass, serializer, false);
+    }
+    
+    /**
+     * @param lazy whether to defer the initial load until the config is first needed
+     */
+    ConfigManager(Config definition, Class<T> configClass, ConfigSerializer<T> serializer, boolean lazy) {
         logger = LogManager.getLogger();
         
         this.definition = definition;
         this.configClass = configClass;
         this.serializer = serializer;
         
-        if (load()) {
-            save();
+        if (!lazy) {
+            ensureLoaded();
+        }
+    }
+    
+    /**
+     * Runs the initial load and save if they haven't happened yet. Concurrent callers
+     * wait for the first one to finish.
+     */
+    void ensureLoaded() {
+        if (config != null) {
+            return;
         }
+        synchronized (initLock) {
+            if (config != null || initializingThread == Thread.currentThread()) {
+                return;
+            }
+            initializingThread = Thread.currentThread();
+            try {
+                if (load()) {
+                    save();
+                }
+            } finally {
+                initializingThread = null;
+            }
+        }
+    }
+    
+    public boolean isLoaded() {
+        return config != null;
     }
     
     public Config getDefinition() {
@@ -69,41 +152,190 @@ public class ConfigManager<T extends ConfigData> implements ConfigHolder<T> {
         return serializer;
     }
     
+    /**
+     * Returns the default values of this config, created once by the serializer and then shared.
+     * Callers must not modify the returned instance, config screens edit a {@link com.raxdiam.dawn.util.ConfigSnapshots#copy(Object) copy}
+     * of it and {@link #resetToDefault()} still creates a fresh one.
+     */
+    public T getDefaults() {
+        T defaults = this.defaults;
+        if (defaults == null) {
+            // Concurrent first calls may each create an instance, they are equal and either one is kept
+            this.defaults = defaults = serializer.createDefault();
+        }
+        return defaults;
+    }
+    
     @Override
     public void save() {
+        ensureLoaded();
+        if (asyncSave) {
+            saveAsync();
+            return;
+        }
+        if (!fireSaveListeners()) {
+            return;
+        }
+        writeNow();
+    }
+    
+    /**
+     * Writes the live config on the calling thread, superseding any snapshot still waiting for the writer.
+     */
+    private CompletableFuture<Void> writeNow() {
+        synchronized (writeLock) {
+            CompletableFuture<Void> superseded;
+            synchronized (this) {
+                superseded = pendingWrite;
+                pendingSnapshot = null;
+                pendingWrite = null;
+            }
+            if (superseded == null) {
+                superseded = new CompletableFuture<>();
+            }
+            try {
+                serializer.serialize(config);
+                ConfigFileWatcher.onAccessed(this);
+                superseded.complete(null);
+            } catch (ConfigSerializer.SerializationException e) {
+                logger.error("Failed to save config '{}'", configClass, e);
+                superseded.completeExceptionally(e);
+            }
+            return superseded;
+        }
+    }
+    
+    @Override
+    public CompletableFuture<Void> saveAsync() {
+        ensureLoaded();
+        if (!fireSaveListeners()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        // Published snapshots are never modified, so they can be written as is
+        T snapshot;
+        try {
+            snapshot = snapshotReads ? config : ConfigSnapshots.copy(config);
+        } catch (IllegalArgumentException e) {
+            // The config holds a value that can't be copied, write it here rather than share it with the writer
+            logger.debug("Saving config '{}' synchronously, it can't be copied", configClass, e);
+            return writeNow();
+        }
+        synchronized (this) {
+            pendingSnapshot = snapshot;
+            if (pendingWrite == null) {
+                // Nothing queued yet, later calls before the writer picks this up only replace the snapshot
+                pendingWrite = new CompletableFuture<>();
+                WRITER.execute(this::writePending);
+            }
+            return pendingWrite;
+        }
+    }
+    
+    /**
+     * The executor of the background writes, running one task at a time in the order they were queued.
+     */
+    static Executor writer() {
+        return WRITER;
+    }
+    
+    /**
+     * Loads the config again, never while it's being written.
+     */
+    void reload() {
+        synchronized (writeLock) {
+            load();
+        }
+    }
+    
+    /**
+     * Waits for the writes queued by {@link #saveAsync()} on any config so far to be done.
+     *
+     * @return whether they were done before the timeout elapsed
+     */
+    static boolean flushPendingWrites(long timeout, TimeUnit unit) {
+        try {
+            // The writer runs tasks in order, so this completes after every write queued before it
+            WRITER.submit(() -> {}).get(timeout, unit);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            return false;
+        }
+    }
+    
+    private void writePending() {
+        synchronized (writeLock) {
+            T snapshot;
+            CompletableFuture<Void> write;
+            synchronized (this) {
+                snapshot = pendingSnapshot;
+                write = pendingWrite;
+                pendingSnapshot = null;
+                pendingWrite = null;
+            }
+            if (write == null) {
+                // Already written by a synchronous save
+                return;
+            }
+            try {
+                serializer.serialize(snapshot);
+                ConfigFileWatcher.onAccessed(this);
+                write.complete(null);
+            } catch (ConfigSerializer.SerializationException | RuntimeException e) {
+                logger.error("Failed to save config '{}'", configClass, e);
+                write.completeExceptionally(e);
+            }
+        }
+    }
+    
+    /**
+     * @return whether the config should be written
+     */
+    private boolean fireSaveListeners() {
         for (ConfigSerializeEvent.Save<T> save : saveEvent) {
             InteractionResult result = save.onSave(this, config);
             if (result == InteractionResult.FAIL) {
-                return;
+                return false;
             } else if (result != InteractionResult.PASS) {
                 break;
             }
         }
-        try {
-            serializer.serialize(config);
-        } catch (ConfigSerializer.SerializationException e) {
-            logger.error("Failed to save config '{}'", configClass, e);
-        }
+        return true;
+    }
+    
+    @Override
+    public boolean isAsyncSave() {
+        return asyncSave;
+    }
+    
+    @Override
+    public void setAsyncSave(boolean asyncSave) {
+        this.asyncSave = asyncSave;
     }
     
     @Override
     public boolean load() {
         try {
             T deserialized = serializer.deserialize();
+            ConfigFileWatcher.onAccessed(this);
             
             for (ConfigSerializeEvent.Load<T> load : loadEvent) {
                 InteractionResult result = load.onLoad(this, deserialized);
                 if (result == InteractionResult.FAIL) {
-                    config = serializer.createDefault();
-                    config.validatePostLoad();
+                    T defaults = serializer.createDefault();
+                    defaults.validatePostLoad();
+                    config = defaults;
                     return false;
                 } else if (result != InteractionResult.PASS) {
                     break;
                 }
             }
             
+            // Validate before publishing, validation may still adjust values
+            deserialized.validatePostLoad();
             config = deserialized;
-            config.validatePostLoad();
             return true;
         } catch (ConfigSerializer.SerializationException | ConfigData.ValidationException e) {
             logger.error("Failed to load config '{}', using default!", configClass, e);
@@ -114,6 +346,11 @@ public class ConfigManager<T extends ConfigData> implements ConfigHolder<T> {
     
     @Override
     public T getConfig() {
+        T config = this.config;
+        if (config == null) {
+            ensureLoaded();
+            config = this.config;
+        }
         return config;
     }
     
@@ -124,17 +361,46 @@ public class ConfigManager<T extends ConfigData> implements ConfigHolder<T> {
 
     @Override
     public void resetToDefault() {
-        config = serializer.createDefault();
+        T defaults = serializer.createDefault();
         try {
-            config.validatePostLoad();
+            defaults.validatePostLoad();
         } catch (ConfigData.ValidationException v) {
             throw new RuntimeException("result of createDefault() was invalid!", v);
         }
+        config = defaults;
     }
 
     @Override
     public void setConfig(T config) {
-        this.config = config;
+        // The caller keeps its instance, publish a copy it can't modify anymore
+        this.config = snapshotReads ? ConfigSnapshots.copy(config) : config;
+    }
+    
+    @Override
+    public void update(Consumer<T> updater) {
+        ensureLoaded();
+        while (true) {
+            T current = config;
+            T updated = ConfigSnapshots.copy(current);
+            updater.accept(updated);
+            if (CONFIG.compareAndSet(this, current, updated)) {
+                return;
+            }
+        }
+    }
+    
+    @Override
+    public boolean isSnapshotReads() {
+        return snapshotReads;
+    }
+    
+    @Override
+    public void setSnapshotReads(boolean snapshotReads) {
+        if (snapshotReads && !this.snapshotReads) {
+            // Detach from the instance that was handed out so far
+            config = ConfigSnapshots.copy(config);
+        }
+        this.snapshotReads = snapshotReads;
     }
 
     @Override
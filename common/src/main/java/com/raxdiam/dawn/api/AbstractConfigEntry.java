@@ -24,13 +24,13 @@ import com.google.common.collect.Iterables;
 import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
 import com.raxdiam.dawn.gui.AbstractConfigScreen;
+import com.raxdiam.dawn.gui.TextLayoutCache;
 import com.raxdiam.dawn.gui.widget.DynamicElementListWidget;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.minecraft.ChatFormatting;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiGraphics;
-import net.minecraft.client.gui.Font;
 import net.minecraft.network.chat.Component;
 import net.minecraft.network.chat.MutableComponent;
 import net.minecraft.util.FormattedCharSequence;
@@ -53,6 +53,7 @@ public abstract class AbstractConfigEntry<T> extends DynamicElementListWidget.El
     private int cacheFieldNameHash = -1;
     private List<String> cachedTags = null;
     private Iterable<String> additionalSearchTags = null;
+    private final TextLayoutCache textLayout = new TextLayoutCache();
     
     public final void setReferenceProviderEntries(@Nullable List<ReferenceProvider<?>> referencableEntries) {
         this.referencableEntries = referencableEntries;
@@ -83,18 +84,31 @@ public abstract class AbstractConfigEntry<T> extends DynamicElementListWidget.El
     public abstract Component getFieldName();
     
     public Component getDisplayedFieldName() {
-        MutableComponent text = getFieldName().copy();
+        Component fieldName = getFieldName();
         boolean hasError = getConfigError().isPresent();
         boolean isEdited = isEdited();
+        boolean isEnabled = isEnabled();
+        int state = (hasError ? TextLayoutCache.STATE_ERROR : 0) | (isEdited ? TextLayoutCache.STATE_EDITED : 0) | (isEnabled ? 0 : TextLayoutCache.STATE_DISABLED);
+        Component cached = textLayout.getFieldName(fieldName, state);
+        if (cached != null)
+            return cached;
+        MutableComponent text = fieldName.copy();
         if (hasError)
             text = text.withStyle(ChatFormatting.RED);
         if (isEdited)
             text = text.withStyle(ChatFormatting.ITALIC);
         if (!hasError && !isEdited)
             text = text.withStyle(ChatFormatting.GRAY);
-        if (!isEnabled())
+        if (!isEnabled)
             text = text.withStyle(ChatFormatting.DARK_GRAY);
-        return text;
+        return textLayout.putFieldName(fieldName, state, text);
+    }
+    
+    /**
+     * Returns the width of {@link #getDisplayedFieldName()}, measured once per field name and state.
+     */
+    public int getDisplayedFieldNameWidth() {
+        return textLayout.getFieldNameWidth(Minecraft.getInstance().font, getDisplayedFieldName());
     }
     
     public Iterator<String> getSearchTags() {
@@ -131,6 +145,14 @@ public abstract class AbstractConfigEntry<T> extends DynamicElementListWidget.El
         this.errorSupplier = errorSupplier;
     }
     
+    /**
+     * @return whether the error of this entry comes from a supplier, which may read the values of other entries
+     */
+    @ApiStatus.Internal
+    public boolean hasErrorSupplier() {
+        return errorSupplier != null;
+    }
+    
     public Optional<Component> getError() {
         return Optional.empty();
     }
@@ -151,16 +173,21 @@ public abstract class AbstractConfigEntry<T> extends DynamicElementListWidget.El
     }
     
     protected FormattedCharSequence[] wrapLines(Component[] lines, int width) {
-        final Font font = Minecraft.getInstance().font;
-        
-        return Arrays.stream(lines)
-                .map(line -> font.split(line, width))
-                .flatMap(List::stream)
-                .toArray(FormattedCharSequence[]::new);
+        return textLayout.wrap(Minecraft.getInstance().font, lines, width);
     }
     
     public void updateSelected(boolean isSelected) {}
     
+    /**
+     * Notifies the screen that the value of this entry changed, so that its
+     * edited and error state gets re-evaluated.
+     */
+    public void notifyValueChanged() {
+        if (screen != null) {
+            screen.onEntryChanged(this);
+        }
+    }
+    
     @ApiStatus.Internal
     public final void setScreen(AbstractConfigScreen screen) {
         this.screen = screen;
@@ -42,4 +42,8 @@ public interface ConfigScreen {
     void addTooltip(Tooltip tooltip);
     
     boolean matchesSearch(Iterator<String> tags);
+    
+    default boolean matchesSearch(AbstractConfigEntry<?> entry) {
+        return matchesSearch(entry.getSearchTags());
+    }
 }
@@ -19,10 +19,12 @@
 
 package com.raxdiam.dawn.api;
 
+import com.raxdiam.dawn.impl.DependentRequirement;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
@@ -44,6 +46,18 @@ public interface Requirement {
      */
     boolean check();
     
+    /**
+     * Returns the value holders this requirement reads, or {@code null} if they are unknown. Requirements
+     * with known dependencies are only checked again once one of their values changed, the others are checked every tick.
+     *
+     * <p>The factories in this interface keep track of their dependencies, combined requirements know
+     * theirs as long as all the requirements they combine do.
+     */
+    @Nullable
+    default Collection<ValueHolder<?>> getDependencies() {
+        return null;
+    }
+    
     /**
      * Generates a {@link Requirement} that is true when {@code dependency}'s value is one of the provided values.
      */
@@ -52,63 +66,81 @@ public interface Requirement {
         Set<@Nullable T> values = Stream.concat(Stream.of(firstValue), Arrays.stream(otherValues))
                 .collect(Collectors.toCollection(HashSet::new));
         
-        return () -> values.contains(dependency.getValue());
+        return DependentRequirement.of(() -> values.contains(dependency.getValue()), dependency);
     }
     
     /**
      * Generates a {@link Requirement} that is true when {@code firstDependency}'s value equals {@code secondDependency}'s value.
      */
     static <T> Requirement matches(ValueHolder<T> firstDependency, ValueHolder<T> secondDependency) {
-        return () -> Objects.equals(firstDependency.getValue(), secondDependency.getValue());
+        return DependentRequirement.of(() -> Objects.equals(firstDependency.getValue(), secondDependency.getValue()), firstDependency, secondDependency);
     }
     
     /**
      * Generates a {@link Requirement} that is true when {@code dependency}'s value is true.
      */
     static Requirement isTrue(ValueHolder<Boolean> dependency) {
-        return () -> Boolean.TRUE.equals(dependency.getValue());
+        return DependentRequirement.of(() -> Boolean.TRUE.equals(dependency.getValue()), dependency);
     }
     
     /**
      * Generates a {@link Requirement} that is true when {@code dependency}'s value is false.
      */
     static Requirement isFalse(ValueHolder<Boolean> dependency) {
-        return () -> Boolean.FALSE.equals(dependency.getValue());
+        return DependentRequirement.of(() -> Boolean.FALSE.equals(dependency.getValue()), dependency);
     }
     
     /**
      * Generates a {@link Requirement} that is true when the given {@code requirement} is false.
      */
     static Requirement not(Requirement requirement) {
-        return () -> !requirement.check();
+        return DependentRequirement.combine(() -> !requirement.check(), requirement);
     }
   
     /**
      * Generates a {@link Requirement} that is true when all the given requirements are true.
      */
     static Requirement all(Requirement... requirements) {
-        return () -> Arrays.stream(requirements).allMatch(Requirement::check);
+        return DependentRequirement.combine(() -> {
+            for (Requirement requirement : requirements) {
+                if (!requirement.check())
+                    return false;
+            }
+            return true;
+        }, requirements);
     }
     
     /**
      * Generates a {@link Requirement} that is true when any of the given requirements are true.
      */
     static Requirement any(Requirement... requirements) {
-        return () -> Arrays.stream(requirements).anyMatch(Requirement::check);
+        return DependentRequirement.combine(() -> {
+            for (Requirement requirement : requirements) {
+                if (requirement.check())
+                    return true;
+            }
+            return false;
+        }, requirements);
     }
     
     /**
      * Generates a {@link Requirement} that is true when none of the given requirements are true, i.e. all are false.
      */
     static Requirement none(Requirement... requirements) {
-        return () -> Arrays.stream(requirements).noneMatch(Requirement::check);
+        return DependentRequirement.combine(() -> {
+            for (Requirement requirement : requirements) {
+                if (requirement.check())
+                    return false;
+            }
+            return true;
+        }, requirements);
     }
     
     /**
      * Generates a {@link Requirement} that is true when precisely one of the given requirements is true.
      */
     static Requirement one(Requirement... requirements) {
-        return () -> {
+        return DependentRequirement.combine(() -> {
             // Use a for loop instead of Stream.count() so that we can return early. We only need to count past 1.
             boolean oneFound = false;
             for (Requirement requirement : requirements) {
@@ -119,6 +151,6 @@ public interface Requirement {
                oneFound = true;
             }
             return oneFound;
-        };
+        }, requirements);
     }
 }
@@ -47,6 +47,7 @@ import org.joml.Matrix4f;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -67,6 +68,7 @@ public abstract class AbstractConfigScreen extends Screen implements ConfigScree
     private KeyCodeEntry focusedBinding;
     private ModifierKeyCode startedKeyCode = null;
     private final List<Tooltip> tooltips = Lists.newArrayList();
+    private final EntryStateTracker stateTracker = new EntryStateTracker(this);
     @Nullable
     private Runnable savingRunnable = null;
     @Nullable
@@ -113,14 +115,32 @@ public abstract class AbstractConfigScreen extends Screen implements ConfigScree
     
     @Override
     public boolean isEdited() {
-        for (List<AbstractConfigEntry<?>> entries : getCategorizedEntries().values()) {
-            for (AbstractConfigEntry<?> entry : entries) {
-                if (entry.isEdited()) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return stateTracker.isEdited();
+    }
+    
+    public boolean hasErrors() {
+        return stateTracker.hasErrors();
+    }
+    
+    /**
+     * @return the errors of the entries of this screen, backed by the state tracker
+     */
+    public Collection<Component> getErrors() {
+        return stateTracker.getErrors();
+    }
+    
+    /**
+     * Called when the value of an entry of this screen changes, marking its
+     * edited and error state for re-evaluation.
+     */
+    @ApiStatus.Internal
+    public void onEntryChanged(AbstractConfigEntry<?> entry) {
+        stateTracker.markChanged(entry);
+    }
+    
+    @ApiStatus.Internal
+    public void invalidateEntryStates() {
+        stateTracker.invalidate();
     }
     
     public boolean isShowingTabs() {
@@ -214,6 +234,7 @@ public abstract class AbstractConfigScreen extends Screen implements ConfigScree
     public boolean mouseReleased(double double_1, double double_2, int int_1) {
         if (this.focusedBinding != null && this.startedKeyCode != null && !this.startedKeyCode.isUnknown() && focusedBinding.isAllowMouse()) {
             focusedBinding.setValue(startedKeyCode);
+            focusedBinding.notifyValueChanged();
             setFocusedBinding(null);
             return true;
         }
@@ -224,6 +245,7 @@ public abstract class AbstractConfigScreen extends Screen implements ConfigScree
     public boolean keyReleased(int int_1, int int_2, int int_3) {
         if (this.focusedBinding != null && this.startedKeyCode != null && focusedBinding.isAllowKey()) {
             focusedBinding.setValue(startedKeyCode);
+            focusedBinding.notifyValueChanged();
             setFocusedBinding(null);
             return true;
         }
@@ -306,6 +328,7 @@ public abstract class AbstractConfigScreen extends Screen implements ConfigScree
                 }
             } else {
                 focusedBinding.setValue(ModifierKeyCode.unknown());
+                focusedBinding.notifyValueChanged();
                 setFocusedBinding(null);
             }
             return true;
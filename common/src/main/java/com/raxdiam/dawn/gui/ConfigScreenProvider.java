@@ -19,22 +19,26 @@
 
 package com.raxdiam.dawn.gui;
 
+import com.raxdiam.dawn.ConfigClassModel;
 import com.raxdiam.dawn.ConfigData;
 import com.raxdiam.dawn.ConfigManager;
 import com.raxdiam.dawn.annotation.Config;
-import com.raxdiam.dawn.annotation.ConfigEntry;
 import com.raxdiam.dawn.gui.registry.api.GuiRegistryAccess;
 import com.raxdiam.dawn.api.ConfigBuilder;
 import com.raxdiam.dawn.api.ConfigCategory;
+import com.raxdiam.dawn.util.ConfigSnapshots;
+import com.raxdiam.dawn.util.Utils;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.minecraft.client.gui.screens.Screen;
 import net.minecraft.network.chat.Component;
 import net.minecraft.resources.ResourceLocation;
+import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Field;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.BiFunction;
 import java.util.function.Function;
@@ -50,9 +54,13 @@ public class ConfigScreenProvider<T extends ConfigData> implements Supplier<Scre
     private final ConfigManager<T> manager;
     private final GuiRegistryAccess registry;
     private final Screen parent;
-    private Function<ConfigManager<T>, String> i18nFunction = manager -> String.format("text.autoconfig.%s", manager.getDefinition().name());
+    private Function<ConfigManager<T>, String> i18nFunction = manager -> ConfigClassModel.of(manager.getConfigClass()).getI18nKey();
     private Function<ConfigBuilder, Screen> buildFunction = ConfigBuilder::build;
-    private BiFunction<String, Field, String> optionFunction = (baseI13n, field) -> String.format("%s.option.%s", baseI13n, field.getName());
+    /**
+     * Overrides the option keys, by default they are taken from the {@link ConfigClassModel}.
+     */
+    @Nullable
+    private BiFunction<String, Field, String> optionFunction;
     private BiFunction<String, String, String> categoryFunction = (baseI13n, categoryName) -> String.format("%s.category.%s", baseI13n, categoryName);
     
     public ConfigScreenProvider(
@@ -87,17 +95,26 @@ public class ConfigScreenProvider<T extends ConfigData> implements Supplier<Scre
     
     @Override
     public Screen get() {
-        T config = manager.getConfig();
-        T defaults = manager.getSerializer().createDefault();
+        ConfigClassModel model = ConfigClassModel.of(manager.getConfigClass());
         
-        String i18n = i18nFunction.apply(manager);
+        // Published snapshots must not be modified, the screen edits a copy whose changes are applied on save
+        boolean snapshotReads = manager.isSnapshotReads();
+        T config = snapshotReads ? ConfigSnapshots.copy(manager.getConfig()) : manager.getConfig();
+        Map<Field, Long> savedFingerprints = snapshotReads ? fingerprintFields(model, config) : null;
+        // Entries write into the default objects they are reset to, each screen edits its own copy of the shared defaults
+        T defaults = copyDefaults();
         
-        ConfigBuilder builder = ConfigBuilder.create().setParentScreen(parent).setTitle(Component.translatable(String.format("%s.title", i18n))).setSavingRunnable(manager::save);
+        String i18n = i18nFunction.apply(manager);
         
-        Class<T> configClass = manager.getConfigClass();
+        ConfigBuilder builder = ConfigBuilder.create().setParentScreen(parent).setTitle(Component.translatable(String.format("%s.title", i18n))).setSavingRunnable(() -> {
+            if (snapshotReads) {
+                applyEditedFields(config, savedFingerprints);
+            }
+            manager.save();
+        });
         
-        if (configClass.isAnnotationPresent(Config.Gui.Background.class)) {
-            String bg = configClass.getAnnotation(Config.Gui.Background.class).value();
+        if (model.getBackground() != null) {
+            String bg = model.getBackground().value();
             ResourceLocation bgId = ResourceLocation.tryParse(bg);
             if (TRANSPARENT_BACKGROUND.equals(bgId))
                 builder.transparentBackground().setDefaultBackgroundTexture(null);
@@ -106,7 +123,7 @@ public class ConfigScreenProvider<T extends ConfigData> implements Supplier<Scre
         }
         
         Map<String, ResourceLocation> categoryBackgrounds =
-                Arrays.stream(configClass.getAnnotationsByType(Config.Gui.CategoryBackground.class))
+                model.getCategoryBackgrounds().stream()
                         .collect(
                                 toMap(
                                         Config.Gui.CategoryBackground::category,
@@ -114,7 +131,7 @@ public class ConfigScreenProvider<T extends ConfigData> implements Supplier<Scre
                                 )
                         );
         
-        Arrays.stream(configClass.getDeclaredFields())
+        model.getFields().stream()
                 .collect(
                         groupingBy(
                                 field -> getOrCreateCategoryForField(field, builder, categoryBackgrounds, i18n),
@@ -125,8 +142,8 @@ public class ConfigScreenProvider<T extends ConfigData> implements Supplier<Scre
                 .forEach(
                         (key, value) -> value.forEach(
                                 field -> {
-                                    String optionI13n = optionFunction.apply(i18n, field);
-                                    registry.getAndTransform(optionI13n, field, config, defaults, registry)
+                                    String optionI13n = optionFunction == null ? field.getI18nKey(i18n) : optionFunction.apply(i18n, field.getField());
+                                    registry.getAndTransform(optionI13n, field.getField(), config, defaults, registry)
                                             .forEach(key::addEntry);
                                 }
                         )
@@ -135,16 +152,53 @@ public class ConfigScreenProvider<T extends ConfigData> implements Supplier<Scre
         return buildFunction.apply(builder);
     }
     
+    private T copyDefaults() {
+        try {
+            return ConfigSnapshots.copy(manager.getDefaults());
+        } catch (IllegalArgumentException e) {
+            return manager.getSerializer().createDefault();
+        }
+    }
+    
+    private static Map<Field, Long> fingerprintFields(ConfigClassModel model, Object config) {
+        Map<Field, Long> fingerprints = new LinkedHashMap<>();
+        for (ConfigClassModel.FieldModel field : model.getFields()) {
+            fingerprints.put(field.getField(), ConfigSnapshots.fingerprint(Utils.getUnsafely(field.getField(), config)));
+        }
+        return fingerprints;
+    }
+    
+    /**
+     * Copies the fields edited on the screen onto the current snapshot, so values published by
+     * other threads since the screen was opened are kept.
+     */
+    private void applyEditedFields(T config, Map<Field, Long> savedFingerprints) {
+        List<Field> edited = new ArrayList<>();
+        for (Map.Entry<Field, Long> entry : savedFingerprints.entrySet()) {
+            long fingerprint = ConfigSnapshots.fingerprint(Utils.getUnsafely(entry.getKey(), config));
+            if (fingerprint != entry.getValue()) {
+                edited.add(entry.getKey());
+                entry.setValue(fingerprint);
+            }
+        }
+        if (edited.isEmpty()) {
+            return;
+        }
+        manager.update(current -> {
+            for (Field field : edited) {
+                // The screen keeps editing its instance, the snapshot gets its own copy
+                Utils.setUnsafely(field, current, ConfigSnapshots.copy(Utils.getUnsafely(field, config)));
+            }
+        });
+    }
+    
     private ConfigCategory getOrCreateCategoryForField(
-            Field field,
+            ConfigClassModel.FieldModel field,
             ConfigBuilder screenBuilder,
             Map<String, ResourceLocation> backgroundMap,
             String baseI13n
     ) {
-        String categoryName = "default";
-        
-        if (field.isAnnotationPresent(ConfigEntry.Category.class))
-            categoryName = field.getAnnotation(ConfigEntry.Category.class).value();
+        String categoryName = field.getCategory();
         
         Component categoryKey = Component.translatable(categoryFunction.apply(baseI13n, categoryName));
         
@@ -28,6 +28,7 @@ import com.raxdiam.dawn.api.animator.ValueAnimator;
 import com.raxdiam.dawn.gui.entries.EmptyEntry;
 import com.raxdiam.dawn.gui.widget.DynamicElementListWidget;
 import com.raxdiam.dawn.gui.widget.SearchFieldEntry;
+import com.raxdiam.dawn.gui.widget.SearchIndex;
 import com.raxdiam.dawn.math.Point;
 import com.raxdiam.dawn.math.Rectangle;
 import net.fabricmc.api.EnvType;
@@ -44,6 +45,7 @@ import net.minecraft.resources.ResourceLocation;
 import net.minecraft.util.Mth;
 import net.minecraft.util.Tuple;
 import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
 import org.joml.Matrix4f;
 
 import java.util.*;
@@ -121,10 +123,11 @@ public class DawnConfigScreen extends AbstractTabbedConfigScreen {
     protected void init() {
         super.init();
         this.tabButtons.clear();
+        this.invalidateEntryStates();
         
         childrenL().add(listWidget = new ListWidget(this, minecraft, width, height, isShowingTabs() ? 70 : 30, height - 32, getBackgroundLocation()));
         listWidget.children().add((AbstractConfigEntry) new EmptyEntry(5));
-        listWidget.children().add((AbstractConfigEntry) (searchFieldEntry = new SearchFieldEntry(this, listWidget)));
+        listWidget.children().add((AbstractConfigEntry) (searchFieldEntry = new SearchFieldEntry(this, listWidget, SearchIndex.build(categorizedEntries.values()))));
         listWidget.children().add((AbstractConfigEntry) new EmptyEntry(5));
         if (categorizedEntries.size() > selectedCategoryIndex) {
             listWidget.children().addAll((List) Lists.newArrayList(categorizedEntries.values()).get(selectedCategoryIndex));
@@ -134,16 +137,7 @@ public class DawnConfigScreen extends AbstractTabbedConfigScreen {
         addRenderableWidget(new Button(width / 2 + 3, height - 26, buttonWidths, 20, Component.empty(), button -> saveAll(true), Supplier::get) {
             @Override
             public void renderWidget(GuiGraphics graphics, int mouseX, int mouseY, float delta) {
-                boolean hasErrors = false;
-                for (List<AbstractConfigEntry<?>> entries : Lists.newArrayList(categorizedEntries.values())) {
-                    for (AbstractConfigEntry<?> entry : entries)
-                        if (entry.getConfigError().isPresent()) {
-                            hasErrors = true;
-                            break;
-                        }
-                    if (hasErrors)
-                        break;
-                }
+                boolean hasErrors = hasErrors();
                 active = isEdited() && !hasErrors;
                 setMessage(hasErrors ? Component.translatable("text.dawn-config.error_cannot_save") : Component.translatable("text.dawn-config.save_and_done"));
                 super.renderWidget(graphics, mouseX, mouseY, delta);
@@ -194,6 +188,11 @@ public class DawnConfigScreen extends AbstractTabbedConfigScreen {
         return searchFieldEntry.matchesSearch(tags);
     }
     
+    @Override
+    public boolean matchesSearch(AbstractConfigEntry<?> entry) {
+        return searchFieldEntry.matchesSearch(entry);
+    }
+    
     @Override
     public boolean mouseScrolled(double mouseX, double mouseY, double amountX, double amountY) {
         if (tabsBounds.contains(mouseX, mouseY) && !tabsLeftBounds.contains(mouseX, mouseY) && !tabsRightBounds.contains(mouseX, mouseY) && amountY != 0d) {
@@ -259,16 +258,12 @@ public class DawnConfigScreen extends AbstractTabbedConfigScreen {
             graphics.drawCenteredString(minecraft.font, title, width / 2, 12, -1);
         
         if (isEditable()) {
-            List<Component> errors = Lists.newArrayList();
-            for (List<AbstractConfigEntry<?>> entries : Lists.newArrayList(categorizedEntries.values()))
-                for (AbstractConfigEntry<?> entry : entries)
-                    if (entry.getConfigError().isPresent())
-                        errors.add(entry.getConfigError().get());
+            Collection<Component> errors = getErrors();
             if (errors.size() > 0) {
                 RenderSystem.setShader(GameRenderer::getPositionTexShader);
                 RenderSystem.setShaderTexture(0, CONFIG_TEX);
                 RenderSystem.setShaderColor(1.0F, 1.0F, 1.0F, 1.0F);
-                String text = "§c" + (errors.size() == 1 ? errors.get(0).plainCopy().getString() : I18n.get("text.dawn-config.multi_error"));
+                String text = "§c" + (errors.size() == 1 ? errors.iterator().next().plainCopy().getString() : I18n.get("text.dawn-config.multi_error"));
                 if (isTransparentBackground()) {
                     int stringWidth = minecraft.font.width(text);
                     graphics.fillGradient(8, 9, 20 + stringWidth, 14 + minecraft.font.lineHeight, 0x68000000, 0x68000000);
@@ -411,6 +406,7 @@ public class DawnConfigScreen extends AbstractTabbedConfigScreen {
                     if (entry.mouseClicked(mouseX, mouseY, button)) {
                         this.setFocused(entry);
                         this.setDragging(true);
+                        notifyValueChanged(entry);
                         return true;
                     }
                 }
@@ -423,6 +419,52 @@ public class DawnConfigScreen extends AbstractTabbedConfigScreen {
             }
         }
         
+        @Override
+        public boolean mouseReleased(double mouseX, double mouseY, int button) {
+            R focused = getFocused();
+            boolean handled = super.mouseReleased(mouseX, mouseY, button);
+            notifyValueChanged(focused);
+            return handled;
+        }
+        
+        @Override
+        public boolean mouseDragged(double mouseX, double mouseY, int button, double deltaX, double deltaY) {
+            return notifyValueChanged(getFocused(), super.mouseDragged(mouseX, mouseY, button, deltaX, deltaY));
+        }
+        
+        @Override
+        protected void entryScrolled(R entry) {
+            notifyValueChanged(entry);
+        }
+        
+        @Override
+        public boolean keyPressed(int keyCode, int scanCode, int modifiers) {
+            return notifyValueChanged(getFocused(), super.keyPressed(keyCode, scanCode, modifiers));
+        }
+        
+        @Override
+        public boolean keyReleased(int keyCode, int scanCode, int modifiers) {
+            return notifyValueChanged(getFocused(), super.keyReleased(keyCode, scanCode, modifiers));
+        }
+        
+        @Override
+        public boolean charTyped(char character, int modifiers) {
+            return notifyValueChanged(getFocused(), super.charTyped(character, modifiers));
+        }
+        
+        private boolean notifyValueChanged(@Nullable R entry, boolean handled) {
+            if (handled) {
+                notifyValueChanged(entry);
+            }
+            return handled;
+        }
+        
+        private void notifyValueChanged(@Nullable R entry) {
+            if (entry instanceof AbstractConfigEntry<?> configEntry) {
+                configEntry.notifyValueChanged();
+            }
+        }
+        
         @Override
         protected void renderBackBackground(GuiGraphics graphics, BufferBuilder buffer, Tesselator tessellator) {
             if (!screen.isTransparentBackground())
@@ -20,9 +20,11 @@
 package com.raxdiam.dawn.gui;
 
 import com.google.common.collect.Lists;
+import com.raxdiam.dawn.ConfigClassModel;
 import com.raxdiam.dawn.annotation.ConfigEntry;
 import com.raxdiam.dawn.gui.registry.GuiRegistry;
 import com.raxdiam.dawn.gui.registry.api.GuiRegistryAccess;
+import com.raxdiam.dawn.util.ConfigSnapshots;
 import com.raxdiam.dawn.util.Utils;
 import com.raxdiam.dawn.api.AbstractConfigListEntry;
 import com.raxdiam.dawn.api.ConfigEntryBuilder;
@@ -43,6 +45,7 @@ import java.lang.reflect.Type;
 import java.util.*;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.LongStream;
@@ -69,7 +72,7 @@ public class DefaultGuiProviders {
         registry.registerAnnotationProvider(
                 (i18n, field, config, defaults, guiProvider) -> {
                     ConfigEntry.BoundedDiscrete bounds
-                            = field.getAnnotation(ConfigEntry.BoundedDiscrete.class);
+                            = ConfigClassModel.of(field).getAnnotation(ConfigEntry.BoundedDiscrete.class);
                     
                     return Collections.singletonList(
                             ENTRY_BUILDER.startIntSlider(
@@ -78,7 +81,7 @@ public class DefaultGuiProviders {
                                             (int) bounds.min(),
                                             (int) bounds.max()
                                     )
-                                    .setDefaultValue(() -> getUnsafely(field, defaults))
+                                    .setDefaultValue(defaultValue(field, defaults))
                                     .setSaveConsumer(newValue -> setUnsafely(field, config, newValue))
                                     .build()
                     );
@@ -90,7 +93,7 @@ public class DefaultGuiProviders {
         registry.registerAnnotationProvider(
                 (i18n, field, config, defaults, guiProvider) -> {
                     ConfigEntry.BoundedDiscrete bounds
-                            = field.getAnnotation(ConfigEntry.BoundedDiscrete.class);
+                            = ConfigClassModel.of(field).getAnnotation(ConfigEntry.BoundedDiscrete.class);
                     
                     return Collections.singletonList(
                             ENTRY_BUILDER.startLongSlider(
@@ -99,7 +102,7 @@ public class DefaultGuiProviders {
                                             bounds.min(),
                                             bounds.max()
                                     )
-                                    .setDefaultValue(() -> getUnsafely(field, defaults))
+                                    .setDefaultValue(defaultValue(field, defaults))
                                     .setSaveConsumer(newValue -> setUnsafely(field, config, newValue))
                                     .build()
                     );
@@ -111,7 +114,7 @@ public class DefaultGuiProviders {
         registry.registerAnnotationProvider(
                 (i18n, field, config, defaults, guiProvider) -> {
                     ConfigEntry.ColorPicker colorPicker
-                            = field.getAnnotation(ConfigEntry.ColorPicker.class);
+                            = ConfigClassModel.of(field).getAnnotation(ConfigEntry.ColorPicker.class);
                     
                     return Collections.singletonList(
                             ENTRY_BUILDER.startColorField(
@@ -119,7 +122,7 @@ public class DefaultGuiProviders {
                                             getUnsafely(field, config, 0)
                                     )
                                     .setAlphaMode(colorPicker.allowAlpha())
-                                    .setDefaultValue(() -> getUnsafely(field, defaults))
+                                    .setDefaultValue(defaultValue(field, defaults))
                                     .setSaveConsumer(newValue -> setUnsafely(field, config, newValue))
                                     .build()
                     );
@@ -140,7 +143,7 @@ public class DefaultGuiProviders {
                                         Component.translatable(i18n),
                                         getChildren(i18n, field, config, defaults, guiProvider)
                                 )
-                                .setExpanded(field.getAnnotation(ConfigEntry.Gui.CollapsibleObject.class).startExpanded())
+                                .setExpanded(ConfigClassModel.of(field).getAnnotation(ConfigEntry.Gui.CollapsibleObject.class).startExpanded())
                                 .build()
                 ),
                 field -> !field.getType().isPrimitive(),
@@ -160,12 +163,15 @@ public class DefaultGuiProviders {
                                             enums,
                                             getUnsafely(field, config, getUnsafely(field, defaults))
                                     )
-                                    .setDefaultValue(() -> getUnsafely(field, defaults))
+                                    .setDefaultValue(defaultValue(field, defaults))
                                     .setSaveConsumer(newValue -> setUnsafely(field, config, newValue))
                                     .build()
                     );
                 },
-                field -> field.getType().isEnum() && field.isAnnotationPresent(ConfigEntry.Gui.EnumHandler.class) && field.getAnnotation(ConfigEntry.Gui.EnumHandler.class).option() == ConfigEntry.Gui.EnumHandler.EnumDisplayOption.BUTTON
+                field -> {
+                    ConfigEntry.Gui.EnumHandler enumHandler = ConfigClassModel.of(field).getAnnotation(ConfigEntry.Gui.EnumHandler.class);
+                    return field.getType().isEnum() && enumHandler != null && enumHandler.option() == ConfigEntry.Gui.EnumHandler.EnumDisplayOption.BUTTON;
+                }
         );
         
         //noinspection unchecked
@@ -191,7 +197,7 @@ public class DefaultGuiProviders {
                                             DropdownMenuBuilder.CellCreatorBuilder.of(DEFAULT_NAME_PROVIDER)
                                     )
                                     .setSelections(enums)
-                                    .setDefaultValue(() -> getUnsafely(field, defaults))
+                                    .setDefaultValue(defaultValue(field, defaults))
                                     .setSaveConsumer(newValue -> setUnsafely(field, config, newValue))
                                     .build()
                     );
@@ -201,35 +207,35 @@ public class DefaultGuiProviders {
         
         registry.registerPredicateProvider((i18n, field, config, defaults, registry1) -> Collections.singletonList(
                 ENTRY_BUILDER.startIntList(Component.translatable(i18n), getUnsafely(field, config))
-                        .setDefaultValue(() -> getUnsafely(field, defaults))
+                        .setDefaultValue(defaultValue(field, defaults))
                         .setSaveConsumer(newValue -> setUnsafely(field, config, newValue))
                         .build()
         ), isListOfType(Integer.class));
         
         registry.registerPredicateProvider((i18n, field, config, defaults, registry1) -> Collections.singletonList(
                 ENTRY_BUILDER.startLongList(Component.translatable(i18n), getUnsafely(field, config))
-                        .setDefaultValue(() -> getUnsafely(field, defaults))
+                        .setDefaultValue(defaultValue(field, defaults))
                         .setSaveConsumer(newValue -> setUnsafely(field, config, newValue))
                         .build()
         ), isListOfType(Long.class));
         
         registry.registerPredicateProvider((i18n, field, config, defaults, registry1) -> Collections.singletonList(
                 ENTRY_BUILDER.startFloatList(Component.translatable(i18n), getUnsafely(field, config))
-                        .setDefaultValue(() -> getUnsafely(field, defaults))
+                        .setDefaultValue(defaultValue(field, defaults))
                         .setSaveConsumer(newValue -> setUnsafely(field, config, newValue))
                         .build()
         ), isListOfType(Float.class));
         
         registry.registerPredicateProvider((i18n, field, config, defaults, registry1) -> Collections.singletonList(
                 ENTRY_BUILDER.startDoubleList(Component.translatable(i18n), getUnsafely(field, config))
-                        .setDefaultValue(() -> getUnsafely(field, defaults))
+                        .setDefaultValue(defaultValue(field, defaults))
                         .setSaveConsumer(newValue -> setUnsafely(field, config, newValue))
                         .build()
         ), isListOfType(Double.class));
         
         registry.registerPredicateProvider((i18n, field, config, defaults, registry1) -> Collections.singletonList(
                 ENTRY_BUILDER.startStrList(Component.translatable(i18n), getUnsafely(field, config))
-                        .setDefaultValue(() -> getUnsafely(field, defaults))
+                        .setDefaultValue(defaultValue(field, defaults))
                         .setSaveConsumer(newValue -> setUnsafely(field, config, newValue))
                         .build()
         ), isListOfType(String.class));
@@ -237,7 +243,7 @@ public class DefaultGuiProviders {
         registry.registerPredicateProvider((i18n, field, config, defaults, registry1) -> {
             List<Object> configValue = getUnsafely(field, config);
             
-            Class<?> fieldTypeParam = (Class<?>) ((ParameterizedType) field.getGenericType()).getActualTypeArguments()[0];
+            Class<?> fieldTypeParam = ConfigClassModel.of(field).getElementType();
             
             Object defaultElemValue = Utils.constructUnsafely(fieldTypeParam);
             
@@ -251,7 +257,7 @@ public class DefaultGuiProviders {
                             false,
                             null,
                             newValue -> setUnsafely(field, config, newValue),
-                            () -> getUnsafely(field, defaults),
+                            copiedDefaultValue(field, defaults),
                             ENTRY_BUILDER.getResetButtonKey(),
                             true,
                             false,
@@ -272,7 +278,7 @@ public class DefaultGuiProviders {
                                         Component.translatable(i18n),
                                         getUnsafely(field, config, false)
                                 )
-                                .setDefaultValue(() -> getUnsafely(field, defaults))
+                                .setDefaultValue(defaultValue(field, defaults))
                                 .setSaveConsumer(newValue -> setUnsafely(field, config, newValue))
                                 .setYesNoTextSupplier(bool -> {
                                     String key = i18n + ".boolean." + bool;
@@ -292,7 +298,7 @@ public class DefaultGuiProviders {
                                         Component.translatable(i18n),
                                         getUnsafely(field, config, 0)
                                 )
-                                .setDefaultValue(() -> getUnsafely(field, defaults))
+                                .setDefaultValue(defaultValue(field, defaults))
                                 .setSaveConsumer(newValue -> setUnsafely(field, config, newValue))
                                 .build()
                 ),
@@ -305,7 +311,7 @@ public class DefaultGuiProviders {
                                         Component.translatable(i18n),
                                         Lists.newArrayList(getUnsafely(field, config, new Integer[0]))
                                 )
-                                .setDefaultValue(() -> defaults == null ? null : Lists.newArrayList((Integer[]) getUnsafely(field, defaults)))
+                                .setDefaultValue(defaultValue(field, defaults, (Integer[] array) -> Lists.newArrayList(array)))
                                 .setSaveConsumer(newValue -> setUnsafely(field, config, newValue.toArray(new Integer[0])))
                                 .build()
                 ),
@@ -318,7 +324,7 @@ public class DefaultGuiProviders {
                                         Component.translatable(i18n),
                                         Lists.newArrayList(IntStream.of(getUnsafely(field, config, new int[0])).boxed().collect(Collectors.toList()))
                                 )
-                                .setDefaultValue(() -> defaults == null ? null : Lists.newArrayList(Arrays.asList(ArrayUtils.toObject((int[]) getUnsafely(field, defaults)))))
+                                .setDefaultValue(defaultValue(field, defaults, (int[] array) -> Lists.newArrayList(Arrays.asList(ArrayUtils.toObject(array)))))
                                 .setSaveConsumer(newValue -> setUnsafely(field, config, newValue.stream().mapToInt(Integer::intValue).toArray()))
                                 .build()
                 ),
@@ -331,7 +337,7 @@ public class DefaultGuiProviders {
                                         Component.translatable(i18n),
                                         getUnsafely(field, config, 0L)
                                 )
-                                .setDefaultValue(() -> getUnsafely(field, defaults))
+                                .setDefaultValue(defaultValue(field, defaults))
                                 .setSaveConsumer(newValue -> setUnsafely(field, config, newValue))
                                 .build()
                 ),
@@ -344,7 +350,7 @@ public class DefaultGuiProviders {
                                         Component.translatable(i18n),
                                         Lists.newArrayList(getUnsafely(field, config, new Long[0]))
                                 )
-                                .setDefaultValue(() -> defaults == null ? null : Lists.newArrayList((Long[]) getUnsafely(field, defaults)))
+                                .setDefaultValue(defaultValue(field, defaults, (Long[] array) -> Lists.newArrayList(array)))
                                 .setSaveConsumer(newValue -> setUnsafely(field, config, newValue.toArray(new Long[0])))
                                 .build()
                 ),
@@ -357,7 +363,7 @@ public class DefaultGuiProviders {
                                         Component.translatable(i18n),
                                         Lists.newArrayList(LongStream.of(getUnsafely(field, config, new long[0])).boxed().collect(Collectors.toList()))
                                 )
-                                .setDefaultValue(() -> defaults == null ? null : Lists.newArrayList(Arrays.asList(ArrayUtils.toObject((long[]) getUnsafely(field, defaults)))))
+                                .setDefaultValue(defaultValue(field, defaults, (long[] array) -> Lists.newArrayList(Arrays.asList(ArrayUtils.toObject(array)))))
                                 .setSaveConsumer(newValue -> setUnsafely(field, config, newValue.stream().mapToLong(Long::longValue).toArray()))
                                 .build()
                 ),
@@ -370,7 +376,7 @@ public class DefaultGuiProviders {
                                         Component.translatable(i18n),
                                         getUnsafely(field, config, 0f)
                                 )
-                                .setDefaultValue(() -> getUnsafely(field, defaults))
+                                .setDefaultValue(defaultValue(field, defaults))
                                 .setSaveConsumer(newValue -> setUnsafely(field, config, newValue))
                                 .build()
                 ),
@@ -383,7 +389,7 @@ public class DefaultGuiProviders {
                                         Component.translatable(i18n),
                                         Lists.newArrayList(getUnsafely(field, config, new Float[0]))
                                 )
-                                .setDefaultValue(() -> defaults == null ? null : Lists.newArrayList((Float[]) getUnsafely(field, defaults)))
+                                .setDefaultValue(defaultValue(field, defaults, (Float[] array) -> Lists.newArrayList(array)))
                                 .setSaveConsumer(newValue -> setUnsafely(field, config, newValue.toArray(new Float[0])))
                                 .build()
                 ),
@@ -396,7 +402,7 @@ public class DefaultGuiProviders {
                                         Component.translatable(i18n),
                                         Lists.newArrayList(Arrays.asList(ArrayUtils.toObject(getUnsafely(field, config, new float[0]))))
                                 )
-                                .setDefaultValue(() -> defaults == null ? null : Lists.newArrayList(Arrays.asList(ArrayUtils.toObject((float[]) getUnsafely(field, defaults)))))
+                                .setDefaultValue(defaultValue(field, defaults, (float[] array) -> Lists.newArrayList(Arrays.asList(ArrayUtils.toObject(array)))))
                                 .setSaveConsumer(newValue -> setUnsafely(field, config, ArrayUtils.toPrimitive(newValue.toArray(new Float[0]))))
                                 .build()
                 ),
@@ -409,7 +415,7 @@ public class DefaultGuiProviders {
                                         Component.translatable(i18n),
                                         getUnsafely(field, config, 0.0)
                                 )
-                                .setDefaultValue(() -> getUnsafely(field, defaults))
+                                .setDefaultValue(defaultValue(field, defaults))
                                 .setSaveConsumer(newValue -> setUnsafely(field, config, newValue))
                                 .build()
                 ),
@@ -422,7 +428,7 @@ public class DefaultGuiProviders {
                                         Component.translatable(i18n),
                                         Lists.newArrayList(getUnsafely(field, config, new Double[0]))
                                 )
-                                .setDefaultValue(() -> defaults == null ? null : Lists.newArrayList((Double[]) getUnsafely(field, defaults)))
+                                .setDefaultValue(defaultValue(field, defaults, (Double[] array) -> Lists.newArrayList(array)))
                                 .setSaveConsumer(newValue -> setUnsafely(field, config, newValue.toArray(new Double[0])))
                                 .build()
                 ),
@@ -435,7 +441,7 @@ public class DefaultGuiProviders {
                                         Component.translatable(i18n),
                                         Lists.newArrayList(Arrays.asList(ArrayUtils.toObject(getUnsafely(field, config, new double[0]))))
                                 )
-                                .setDefaultValue(() -> defaults == null ? null : Lists.newArrayList(Arrays.asList(ArrayUtils.toObject((double[]) getUnsafely(field, defaults)))))
+                                .setDefaultValue(defaultValue(field, defaults, (double[] array) -> Lists.newArrayList(Arrays.asList(ArrayUtils.toObject(array)))))
                                 .setSaveConsumer(newValue -> setUnsafely(field, config, ArrayUtils.toPrimitive(newValue.toArray(new Double[0]))))
                                 .build()
                 ),
@@ -448,7 +454,7 @@ public class DefaultGuiProviders {
                                         Component.translatable(i18n),
                                         getUnsafely(field, config, "")
                                 )
-                                .setDefaultValue(() -> getUnsafely(field, defaults))
+                                .setDefaultValue(defaultValue(field, defaults))
                                 .setSaveConsumer(newValue -> setUnsafely(field, config, newValue))
                                 .build()
                 ),
@@ -461,7 +467,7 @@ public class DefaultGuiProviders {
                                         Component.translatable(i18n),
                                         Lists.newArrayList(getUnsafely(field, config, new String[0]))
                                 )
-                                .setDefaultValue(() -> defaults == null ? null : Lists.newArrayList((String[]) getUnsafely(field, defaults)))
+                                .setDefaultValue(defaultValue(field, defaults, (String[] array) -> Lists.newArrayList(array)))
                                 .setSaveConsumer(newValue -> setUnsafely(field, config, newValue.toArray(new String[0])))
                                 .build()
                 ),
@@ -475,7 +481,7 @@ public class DefaultGuiProviders {
                 configValueAsList.add(Array.get(configValue, i));
             }
             
-            Class<?> fieldTypeParam = field.getType().getComponentType();
+            Class<?> fieldTypeParam = ConfigClassModel.of(field).getElementType();
             
             Object defaultElemValue = Utils.constructUnsafely(fieldTypeParam);
             
@@ -495,14 +501,13 @@ public class DefaultGuiProviders {
                                 }
                                 setUnsafely(field, config, newArray);
                             },
-                            () -> {
-                                Object o = getUnsafely(field, defaults);
+                            defaultValue(field, defaults, (Object o) -> {
                                 List<Object> asList = new ArrayList<>(Array.getLength(o));
                                 for (int i = 0; i < Array.getLength(o); i++) {
                                     asList.add(Array.get(o, i));
                                 }
                                 return asList;
-                            },
+                            }),
                             ENTRY_BUILDER.getResetButtonKey(),
                             true,
                             false,
@@ -531,7 +536,8 @@ public class DefaultGuiProviders {
     }
     
     private static List<AbstractConfigListEntry> getChildren(String i18n, Class<?> fieldType, Object iConfig, Object iDefaults, GuiRegistryAccess guiProvider) {
-        return Arrays.stream(fieldType.getDeclaredFields())
+        return ConfigClassModel.of(fieldType).getFields().stream()
+                .map(ConfigClassModel.FieldModel::getField)
                 .map(
                         iField -> {
                             String iI13n = String.format("%s.%s", i18n, iField.getName());
@@ -543,6 +549,42 @@ public class DefaultGuiProviders {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Returns a supplier of the field's default value, which is read once here instead of every time
+     * the entry asks for it, entries ask every frame to update their reset button.
+     *
+     * @param field    the field to read
+     * @param defaults the default instance, may be {@code null}
+     * @return a supplier of the default value, or {@code null} if there's none
+     */
+    private static <V> Supplier<V> defaultValue(Field field, Object defaults) {
+        V value = getUnsafely(field, defaults);
+        return () -> value;
+    }
+    
+    /**
+     * Like {@link #defaultValue(Field, Object)}, handing out a deep copy on every call. Used for values whose entries
+     * are built around the default objects themselves and write into them once edited.
+     */
+    private static <V> Supplier<V> copiedDefaultValue(Field field, Object defaults) {
+        V value = getUnsafely(field, defaults);
+        return () -> {
+            try {
+                return ConfigSnapshots.copy(value);
+            } catch (IllegalArgumentException e) {
+                return value;
+            }
+        };
+    }
+    
+    /**
+     * Like {@link #defaultValue(Field, Object)}, converting the default value to what the entry expects on every call.
+     */
+    private static <V, R> Supplier<R> defaultValue(Field field, Object defaults, Function<V, R> converter) {
+        V value = getUnsafely(field, defaults);
+        return () -> value == null ? null : converter.apply(value);
+    }
+    
     /**
      * Returns a predicate that tests if the field is a list containing some particular {@link Type}s, i.e. {@code List<Integer>}.
      *
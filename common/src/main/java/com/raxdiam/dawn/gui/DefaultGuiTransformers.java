@@ -21,6 +21,7 @@ package com.raxdiam.dawn.gui;
 
 import com.electronwill.nightconfig.core.serde.annotations.SerdeComment;
 import com.google.common.collect.Lists;
+import com.raxdiam.dawn.ConfigClassModel;
 import com.raxdiam.dawn.annotation.ConfigEntry;
 import com.raxdiam.dawn.gui.registry.GuiRegistry;
 import com.raxdiam.dawn.api.AbstractConfigListEntry;
@@ -52,7 +53,7 @@ public class DefaultGuiTransformers {
                 (guis, i18n, field, config, defaults, guiProvider) -> guis.stream()
                         .peek(gui -> {
                             if (!(gui instanceof TextListEntry)) {
-                                ConfigEntry.Gui.Tooltip tooltip = field.getAnnotation(ConfigEntry.Gui.Tooltip.class);
+                                ConfigEntry.Gui.Tooltip tooltip = ConfigClassModel.of(field).getAnnotation(ConfigEntry.Gui.Tooltip.class);
                                 if (tooltip.count() == 0) {
                                     tryRemoveTooltip(gui);
                                 } else if (tooltip.count() == 1) {
@@ -80,13 +81,13 @@ public class DefaultGuiTransformers {
                 (guis, i18n, field, config, defaults, guiProvider) -> guis.stream()
                         .peek(gui -> {
                             if (!(gui instanceof TextListEntry)) {
-                                SerdeComment tooltip = field.getAnnotation(SerdeComment.class);
+                                SerdeComment tooltip = ConfigClassModel.of(field).getAnnotation(SerdeComment.class);
                                 Component[] text = new Component[]{Component.literal(tooltip.value())};
                                 tryApplyTooltip(gui, text);
                             }
                         })
                         .collect(Collectors.toList()),
-                field -> !field.isAnnotationPresent(ConfigEntry.Gui.Tooltip.class),
+                field -> !ConfigClassModel.of(field).isAnnotationPresent(ConfigEntry.Gui.Tooltip.class),
                 SerdeComment.class
         );
         
@@ -119,7 +120,7 @@ public class DefaultGuiTransformers {
         registry.registerAnnotationTransformer(
                 (guis, i18n, field, config, defaults, guiProvider) -> {
                     for (AbstractConfigListEntry gui : guis) {
-                        gui.setRequiresRestart(field.getAnnotation(ConfigEntry.Gui.RequiresRestart.class).value());
+                        gui.setRequiresRestart(ConfigClassModel.of(field).getAnnotation(ConfigEntry.Gui.RequiresRestart.class).value());
                     }
                     return guis;
                 },
@@ -0,0 +1,151 @@
+/*
+ * This file is part of Dawn Config (formerly 'Cloth Config').
+ * Copyright (C) 2020 - 2021 shedaniel
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.raxdiam.dawn.gui;
+
+import com.raxdiam.dawn.api.AbstractConfigEntry;
+import com.raxdiam.dawn.api.ReferenceProvider;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ReferenceOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceArrayList;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.network.chat.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Keeps track of which top level entries of a screen are edited or have an error.
+ * <p>
+ * Entries report value changes through {@link AbstractConfigEntry#notifyValueChanged()},
+ * only the top level entries owning changed entries are re-evaluated, so querying
+ * the state every frame is cheap.
+ * <p>
+ * Error suppliers may read the values of any other entry, so entries using one can't
+ * tell which changes affect them. Those are re-evaluated on every change.
+ */
+@Environment(EnvType.CLIENT)
+class EntryStateTracker {
+    private final AbstractConfigScreen screen;
+    private final Reference2ReferenceOpenHashMap<AbstractConfigEntry<?>, AbstractConfigEntry<?>> roots = new Reference2ReferenceOpenHashMap<>();
+    private final ReferenceOpenHashSet<AbstractConfigEntry<?>> dirty = new ReferenceOpenHashSet<>();
+    /**
+     * The top level entries with error suppliers, whose dependencies are unknown.
+     */
+    private final ReferenceArrayList<AbstractConfigEntry<?>> unknownDependencies = new ReferenceArrayList<>();
+    private final ReferenceOpenHashSet<AbstractConfigEntry<?>> edited = new ReferenceOpenHashSet<>();
+    private final Reference2ObjectLinkedOpenHashMap<AbstractConfigEntry<?>, Component> errors = new Reference2ObjectLinkedOpenHashMap<>();
+    private boolean invalidated = true;
+    
+    EntryStateTracker(AbstractConfigScreen screen) {
+        this.screen = screen;
+    }
+    
+    /**
+     * Re-evaluates every entry on next access.
+     */
+    void invalidate() {
+        this.invalidated = true;
+    }
+    
+    void markChanged(AbstractConfigEntry<?> entry) {
+        if (invalidated) return;
+        AbstractConfigEntry<?> root = roots.get(entry);
+        if (root == null) {
+            // Entries created after the last evaluation, e.g. new list cells
+            invalidated = true;
+        } else {
+            dirty.add(root);
+        }
+    }
+    
+    boolean isEdited() {
+        update();
+        return !edited.isEmpty();
+    }
+    
+    boolean hasErrors() {
+        update();
+        return !errors.isEmpty();
+    }
+    
+    Collection<Component> getErrors() {
+        update();
+        return errors.values();
+    }
+    
+    private void update() {
+        if (invalidated) {
+            invalidated = false;
+            roots.clear();
+            dirty.clear();
+            unknownDependencies.clear();
+            edited.clear();
+            errors.clear();
+            for (List<AbstractConfigEntry<?>> entries : screen.getCategorizedEntries().values()) {
+                for (AbstractConfigEntry<?> entry : entries) {
+                    if (mapRoot(entry, entry)) {
+                        unknownDependencies.add(entry);
+                    }
+                    evaluate(entry);
+                }
+            }
+        } else if (!dirty.isEmpty()) {
+            dirty.addAll(unknownDependencies);
+            // Evaluating may set values and report further changes, those are picked up on the next access
+            AbstractConfigEntry<?>[] changed = dirty.toArray(new AbstractConfigEntry<?>[0]);
+            dirty.clear();
+            for (AbstractConfigEntry<?> root : changed) {
+                evaluate(root);
+            }
+        }
+    }
+    
+    /**
+     * @return whether the entry or one of its nested entries has an error supplier
+     */
+    private boolean mapRoot(AbstractConfigEntry<?> entry, AbstractConfigEntry<?> root) {
+        if (roots.putIfAbsent(entry, root) != null) return false;
+        boolean errorSupplier = entry.hasErrorSupplier();
+        List<ReferenceProvider<?>> nestedEntries = entry.getReferenceProviderEntries();
+        if (nestedEntries != null) {
+            for (ReferenceProvider<?> nestedEntry : nestedEntries) {
+                errorSupplier |= mapRoot(nestedEntry.provideReferenceEntry(), root);
+            }
+        }
+        return errorSupplier;
+    }
+    
+    private void evaluate(AbstractConfigEntry<?> root) {
+        if (root.isEdited()) {
+            edited.add(root);
+        } else {
+            edited.remove(root);
+        }
+        Optional<Component> error = root.getConfigError();
+        if (error.isPresent()) {
+            errors.put(root, error.get());
+        } else {
+            errors.remove(root);
+        }
+    }
+}
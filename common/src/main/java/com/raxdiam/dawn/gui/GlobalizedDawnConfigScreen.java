@@ -32,6 +32,7 @@ import com.raxdiam.dawn.api.scroll.ScrollingContainer;
 import com.raxdiam.dawn.gui.entries.EmptyEntry;
 import com.raxdiam.dawn.gui.widget.DynamicEntryListWidget;
 import com.raxdiam.dawn.gui.widget.SearchFieldEntry;
+import com.raxdiam.dawn.gui.widget.SearchIndex;
 import com.raxdiam.dawn.math.Rectangle;
 import net.minecraft.ChatFormatting;
 import net.minecraft.client.Minecraft;
@@ -143,13 +144,14 @@ public class GlobalizedDawnConfigScreen extends AbstractConfigScreen implements
     @Override
     protected void init() {
         super.init();
+        this.invalidateEntryStates();
         this.sideExpandLimit.reset();
         this.references.clear();
         buildReferences();
         this.addWidget(listWidget = new DawnConfigScreen.ListWidget<>(this, minecraft, width - 14, height, 30, height - 32, getBackgroundLocation()));
         this.listWidget.setLeftPos(14);
         this.listWidget.children().add((AbstractConfigEntry) new EmptyEntry(5));
-        this.listWidget.children().add((AbstractConfigEntry) (searchFieldEntry = new SearchFieldEntry(this, listWidget)));
+        this.listWidget.children().add((AbstractConfigEntry) (searchFieldEntry = new SearchFieldEntry(this, listWidget, SearchIndex.build(categorizedEntries.values()))));
         this.listWidget.children().add((AbstractConfigEntry) new EmptyEntry(5));
         this.categorizedEntries.forEach((category, entries) -> {
             if (!listWidget.children().isEmpty())
@@ -164,16 +166,7 @@ public class GlobalizedDawnConfigScreen extends AbstractConfigScreen implements
         addRenderableWidget(exitButton = new Button(0, height - 26, buttonWidths, 20, Component.empty(), button -> saveAll(true), Supplier::get) {
             @Override
             public void renderWidget(GuiGraphics graphics, int mouseX, int mouseY, float delta) {
-                boolean hasErrors = false;
-                label:
-                for (List<AbstractConfigEntry<?>> entries : categorizedEntries.values()) {
-                    for (AbstractConfigEntry<?> entry : entries) {
-                        if (entry.getConfigError().isPresent()) {
-                            hasErrors = true;
-                            break label;
-                        }
-                    }
-                }
+                boolean hasErrors = hasErrors();
                 active = isEdited() && !hasErrors;
                 setMessage(hasErrors ? Component.translatable("text.dawn-config.error_cannot_save") : Component.translatable("text.dawn-config.save_and_done"));
                 super.renderWidget(graphics, mouseX, mouseY, delta);
@@ -187,6 +180,11 @@ public class GlobalizedDawnConfigScreen extends AbstractConfigScreen implements
         return searchFieldEntry.matchesSearch(tags);
     }
     
+    @Override
+    public boolean matchesSearch(AbstractConfigEntry<?> entry) {
+        return searchFieldEntry.matchesSearch(entry);
+    }
+    
     private void buildReferences() {
         categorizedEntries.forEach((categoryText, entries) -> {
             this.references.add(new CategoryReference(categoryText));
@@ -0,0 +1,126 @@
+/*
+ * This file is part of Dawn Config (formerly 'Cloth Config').
+ * Copyright (C) 2020 - 2021 shedaniel
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+
+package com.raxdiam.dawn.gui;
+
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.client.gui.Font;
+import net.minecraft.locale.Language;
+import net.minecraft.network.chat.Component;
+import net.minecraft.util.FormattedCharSequence;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Remembers the text layout of an entry between frames.
+ * <p>
+ * The styled field name is keyed on the identity of the field name and the style state it was
+ * styled for, wrapped lines on the lines and the width they were wrapped to. Everything is
+ * dropped when the active language changes, which also happens when resources, and with them
+ * the font, are reloaded. A resize changes the wrap width and so misses on its own.
+ */
+@Environment(EnvType.CLIENT)
+@ApiStatus.Internal
+public final class TextLayoutCache {
+    public static final int STATE_ERROR = 1;
+    public static final int STATE_EDITED = 1 << 1;
+    public static final int STATE_DISABLED = 1 << 2;
+    private Language language;
+    private Component fieldNameSource;
+    private int fieldNameState;
+    private Component fieldName;
+    private int fieldNameWidth = -1;
+    private Component[] wrapSource;
+    private int wrapWidth;
+    private FormattedCharSequence[] wrapped;
+    
+    private void checkLanguage() {
+        Language current = Language.getInstance();
+        if (current != language) {
+            language = current;
+            fieldNameSource = null;
+            fieldName = null;
+            fieldNameWidth = -1;
+            wrapSource = null;
+            wrapped = null;
+        }
+    }
+    
+    /**
+     * Returns the field name styled for the given state, or {@code null} if it has to be styled again.
+     */
+    @Nullable
+    public Component getFieldName(Component source, int state) {
+        checkLanguage();
+        return source == fieldNameSource && state == fieldNameState ? fieldName : null;
+    }
+    
+    public Component putFieldName(Component source, int state, Component fieldName) {
+        this.fieldNameSource = source;
+        this.fieldNameState = state;
+        this.fieldName = fieldName;
+        this.fieldNameWidth = -1;
+        return fieldName;
+    }
+    
+    /**
+     * Returns the width of a field name returned by {@link #getFieldName(Component, int)}.
+     */
+    public int getFieldNameWidth(Font font, Component fieldName) {
+        if (fieldName != this.fieldName) {
+            return font.width(fieldName);
+        }
+        if (fieldNameWidth < 0) {
+            fieldNameWidth = font.width(fieldName);
+        }
+        return fieldNameWidth;
+    }
+    
+    /**
+     * Splits each line to the given width, reusing the previous result if the lines and the width are the same.
+     */
+    public FormattedCharSequence[] wrap(Font font, Component[] lines, int width) {
+        checkLanguage();
+        if (width == wrapWidth && sameLines(lines, wrapSource)) {
+            return wrapped;
+        }
+        List<FormattedCharSequence> split = new ArrayList<>(lines.length);
+        for (Component line : lines) {
+            split.addAll(font.split(line, width));
+        }
+        wrapSource = lines.clone();
+        wrapWidth = width;
+        wrapped = split.toArray(new FormattedCharSequence[0]);
+        return wrapped;
+    }
+    
+    private static boolean sameLines(Component[] lines, @Nullable Component[] previous) {
+        if (previous == null || lines.length != previous.length) return false;
+        for (int i = 0; i < lines.length; i++) {
+            // Suppliers usually return the same components, equal ones lay out the same
+            if (lines[i] != previous[i] && !lines[i].equals(previous[i])) return false;
+        }
+        return true;
+    }
+}
@@ -33,7 +33,6 @@ import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 
 /**
  * @param <T>    the configuration object type
@@ -69,7 +68,24 @@ public abstract class AbstractListListEntry<T, C extends AbstractListListEntry.A
     
     @Override
     public List<T> getValue() {
-        return cells.stream().map(C::getValue).collect(Collectors.toList());
+        List<T> value = new ArrayList<>(cells.size());
+        for (C cell : cells)
+            value.add(cell.getValue());
+        return value;
+    }
+    
+    @Override
+    public boolean isMatchDefault() {
+        // Compares the cells directly, this is checked every frame and the list may be long
+        Optional<List<T>> defaultValue = getDefaultValue();
+        if (defaultValue.isEmpty() || defaultValue.get().size() != cells.size())
+            return false;
+        List<T> values = defaultValue.get();
+        for (int i = 0; i < cells.size(); i++) {
+            if (!Objects.equals(cells.get(i).getValue(), values.get(i)))
+                return false;
+        }
+        return true;
     }
     
     @Override
@@ -80,10 +96,9 @@ public abstract class AbstractListListEntry<T, C extends AbstractListListEntry.A
     @Override
     public boolean isEdited() {
         if (super.isEdited()) return true;
-        List<T> value = getValue();
-        if (value.size() != original.size()) return true;
-        for (int i = 0; i < value.size(); i++) {
-            if (!Objects.equals(value.get(i), original.get(i)))
+        if (cells.size() != original.size()) return true;
+        for (int i = 0; i < cells.size(); i++) {
+            if (!Objects.equals(cells.get(i).getValue(), original.get(i)))
                 return true;
         }
         return false;
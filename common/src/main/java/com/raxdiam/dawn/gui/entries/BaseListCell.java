@@ -25,6 +25,7 @@ import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.gui.components.events.AbstractContainerEventHandler;
 import net.minecraft.client.gui.narration.NarratableEntry;
 import net.minecraft.network.chat.Component;
+import org.jetbrains.annotations.ApiStatus;
 
 import java.util.Optional;
 import java.util.function.Supplier;
@@ -47,6 +48,11 @@ public abstract class BaseListCell extends AbstractContainerEventHandler impleme
         this.errorSupplier = errorSupplier;
     }
     
+    @ApiStatus.Internal
+    public boolean hasErrorSupplier() {
+        return errorSupplier != null;
+    }
+    
     public abstract Optional<Component> getError();
     
     public abstract int getCellHeight();
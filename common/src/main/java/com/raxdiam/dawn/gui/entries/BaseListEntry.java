@@ -40,14 +40,10 @@ import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
+import java.util.*;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 
 /**
  * @param <T>    the configuration object type
@@ -70,6 +66,36 @@ public abstract class BaseListEntry<T, C extends BaseListCell, SELF extends Base
     protected AbstractWidget resetWidget;
     @NotNull protected Function<SELF, C> createNewInstance;
     @NotNull protected Supplier<List<T>> defaultValue;
+    /**
+     * The range of cells rendered in the last frame, the other cells are outside the list's viewport and don't receive input.
+     */
+    private int renderedCellsFrom, renderedCellsTo;
+    /**
+     * The offset of each cell from the first one, with the total height of the cells last. Rebuilt by {@link #getItemHeight()}.
+     */
+    private int[] cellOffsets = new int[1];
+    private final WidgetList widgetList;
+    /**
+     * The {@link #widgets} that aren't cells, refreshed whenever {@link #widgets} is modified.
+     */
+    private List<GuiEventListener> entryWidgets = List.of();
+    private int entryWidgetsModCount = -1;
+    private final List<GuiEventListener> children = new AbstractList<>() {
+        @Override
+        public GuiEventListener get(int index) {
+            List<GuiEventListener> entryWidgets = entryWidgets();
+            int entryCount = entryWidgets.size();
+            if (index < entryCount)
+                return entryWidgets.get(index);
+            Objects.checkIndex(index, size());
+            return cells.get(renderedCellsFrom + index - entryCount);
+        }
+        
+        @Override
+        public int size() {
+            return entryWidgets().size() + visibleCellCount();
+        }
+    };
     @Nullable
     protected Component addTooltip = Component.translatable("text.dawn-config.list.add"), removeTooltip = Component.translatable("text.dawn-config.list.remove");
     
@@ -90,11 +116,15 @@ public abstract class BaseListEntry<T, C extends BaseListCell, SELF extends Base
         this.insertInFront = insertInFront;
         this.cells = Lists.newArrayList();
         this.labelWidget = new ListLabelWidget();
-        this.widgets = Lists.newArrayList(labelWidget);
+        this.widgets = this.widgetList = new WidgetList();
+        this.widgets.add(labelWidget);
         this.narratables = Lists.newArrayList();
         this.resetWidget = Button.builder(resetButtonKey, widget -> {
-            widgets.removeAll(cells);
-            narratables.removeAll(cells);
+            // Removed by identity in one pass, removeAll would scan the cells for every widget
+            Set<Object> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+            removed.addAll(cells);
+            widgets.removeIf(removed::contains);
+            narratables.removeIf(removed::contains);
             for (C cell : cells) {
                 cell.onDelete();
             }
@@ -105,6 +135,7 @@ public abstract class BaseListEntry<T, C extends BaseListCell, SELF extends Base
             }
             widgets.addAll(cells);
             narratables.addAll(cells);
+            invalidateHeight();
         }).bounds(0, 0, Minecraft.getInstance().font.width(resetButtonKey) + 6, 20).build();
         this.widgets.add(resetWidget);
         this.narratables.add(resetWidget);
@@ -121,6 +152,7 @@ public abstract class BaseListEntry<T, C extends BaseListCell, SELF extends Base
     @Override
     public void setExpanded(boolean expanded) {
         this.expanded = expanded;
+        invalidateHeight();
     }
     
     @Override
@@ -212,22 +244,70 @@ public abstract class BaseListEntry<T, C extends BaseListCell, SELF extends Base
     @Override
     public int getItemHeight() {
         if (isExpanded()) {
-            int i = 24;
-            for (BaseListCell entry : cells)
-                i += entry.getCellHeight();
-            return i;
+            return 24 + updateCellOffsets()[cells.size()];
         }
         return 24;
     }
     
+    private int[] updateCellOffsets() {
+        int[] offsets = cellOffsets.length == cells.size() + 1 ? cellOffsets : new int[cells.size() + 1];
+        for (int i = 0; i < cells.size(); i++)
+            offsets[i + 1] = offsets[i] + cells.get(i).getCellHeight();
+        return cellOffsets = offsets;
+    }
+    
+    /**
+     * Finds the first cell ending below the given offset from the top of the first cell, in the offsets computed by
+     * the last {@link #getItemHeight()}.
+     */
+    private int getCellAtOffset(int[] offsets, int offset) {
+        int low = 0;
+        int high = offsets.length - 2;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (offsets[mid + 1] <= offset) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+    
     @Override
     public List<? extends GuiEventListener> children() {
-        if (!isExpanded()) {
-            List<GuiEventListener> elements = new ArrayList<>(widgets);
-            elements.removeAll(cells);
-            return elements;
+        return children;
+    }
+    
+    private List<GuiEventListener> entryWidgets() {
+        int modCount = widgetList.modCount();
+        if (modCount != entryWidgetsModCount) {
+            // Only scanned when widgets are added or removed, which scans the list anyway
+            List<GuiEventListener> entryWidgets = new ArrayList<>();
+            for (GuiEventListener widget : widgets) {
+                if (!(widget instanceof BaseListCell))
+                    entryWidgets.add(widget);
+            }
+            this.entryWidgets = entryWidgets;
+            this.entryWidgetsModCount = modCount;
         }
-        return widgets;
+        return entryWidgets;
+    }
+    
+    private int visibleCellCount() {
+        if (!isExpanded())
+            return 0;
+        return Math.max(0, Math.min(renderedCellsTo, cells.size()) - renderedCellsFrom);
+    }
+    
+    @Override
+    public boolean hasErrorSupplier() {
+        if (super.hasErrorSupplier()) return true;
+        for (C cell : cells) {
+            if (cell.hasErrorSupplier())
+                return true;
+        }
+        return false;
     }
     
     @Override
@@ -237,12 +317,16 @@ public abstract class BaseListEntry<T, C extends BaseListCell, SELF extends Base
     
     @Override
     public Optional<Component> getError() {
-        List<Component> errors = cells.stream().map(C::getConfigError).filter(Optional::isPresent).map(Optional::get).collect(Collectors.toList());
-        
-        if (errors.size() > 1)
-            return Optional.of(Component.translatable("text.dawn-config.multi_error"));
-        else
-            return errors.stream().findFirst();
+        Optional<Component> error = Optional.empty();
+        for (C cell : cells) {
+            Optional<Component> cellError = cell.getConfigError();
+            if (cellError.isPresent()) {
+                if (error.isPresent())
+                    return Optional.of(Component.translatable("text.dawn-config.multi_error"));
+                error = cellError;
+            }
+        }
+        return error;
     }
     
     @Override
@@ -301,11 +385,23 @@ public abstract class BaseListEntry<T, C extends BaseListCell, SELF extends Base
         resetWidget.render(graphics, mouseX, mouseY, delta);
         int offset = (isInsertButtonEnabled() || isDeleteButtonEnabled() ? 6 : 0) + (isInsertButtonEnabled() ? 9 : 0) + (isDeleteButtonEnabled() ? 9 : 0);
         graphics.drawString(Minecraft.getInstance().font, getDisplayedFieldName().getVisualOrderText(), x + offset, y + 6, insideLabel && !resetWidget.isMouseOver(mouseX, mouseY) && !insideDelete && !insideCreateNew ? 0xffe6fe16 : getPreferredTextColor());
+        renderedCellsFrom = renderedCellsTo = 0;
         if (isExpanded()) {
-            int yy = y + 24;
-            for (BaseListCell cell : cells) {
-                cell.render(graphics, -1, yy, x + 14, entryWidth - 14, cell.getCellHeight(), mouseX, mouseY, getParent().getFocused() != null && getParent().getFocused().equals(this) && getFocused() != null && getFocused().equals(cell), delta);
-                yy += cell.getCellHeight();
+            // Only the cells inside the list's viewport are rendered, long lists would otherwise render thousands of cells every frame
+            int top = getParent().top;
+            int bottom = getParent().bottom;
+            boolean selected = getParent().getFocused() != null && getParent().getFocused().equals(this) && getFocused() != null;
+            int[] offsets = cellOffsets.length == cells.size() + 1 ? cellOffsets : updateCellOffsets();
+            int first = getCellAtOffset(offsets, top - (y + 24));
+            renderedCellsFrom = renderedCellsTo = first;
+            for (int i = first; i < cells.size(); i++) {
+                int yy = y + 24 + offsets[i];
+                if (yy >= bottom)
+                    break;
+                BaseListCell cell = cells.get(i);
+                int cellHeight = offsets[i + 1] - offsets[i];
+                renderedCellsTo = i + 1;
+                cell.render(graphics, -1, yy, x + 14, entryWidth - 14, cellHeight, mouseX, mouseY, selected && getFocused().equals(cell), delta);
             }
         }
     }
@@ -326,6 +422,21 @@ public abstract class BaseListEntry<T, C extends BaseListCell, SELF extends Base
         return insertInFront;
     }
     
+    /**
+     * Tells when widgets were added or removed, {@link ArrayList#set(int, Object)} counts as well.
+     */
+    private static final class WidgetList extends ArrayList<GuiEventListener> {
+        @Override
+        public GuiEventListener set(int index, GuiEventListener element) {
+            modCount++;
+            return super.set(index, element);
+        }
+        
+        int modCount() {
+            return modCount;
+        }
+    }
+    
     public class ListLabelWidget implements GuiEventListener {
         protected Rectangle rectangle = new Rectangle();
         
@@ -346,6 +457,7 @@ public abstract class BaseListEntry<T, C extends BaseListCell, SELF extends Base
                     widgets.add(cell);
                 }
                 cell.onAdd();
+                invalidateHeight();
                 Minecraft.getInstance().getSoundManager().play(SimpleSoundInstance.forUI(SoundEvents.UI_BUTTON_CLICK, 1.0F));
                 return true;
             } else if (isDeleteButtonEnabled() && isInsideDelete(mouseX, mouseY)) {
@@ -355,6 +467,7 @@ public abstract class BaseListEntry<T, C extends BaseListCell, SELF extends Base
                     //noinspection SuspiciousMethodCalls
                     cells.remove(focused);
                     widgets.remove(focused);
+                    invalidateHeight();
                     Minecraft.getInstance().getSoundManager().play(SimpleSoundInstance.forUI(SoundEvents.UI_BUTTON_CLICK, 1.0F));
                 }
                 return true;
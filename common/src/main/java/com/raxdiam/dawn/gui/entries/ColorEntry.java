@@ -20,6 +20,7 @@
 package com.raxdiam.dawn.gui.entries;
 
 import com.raxdiam.dawn.gui.widget.ColorDisplayWidget;
+import com.raxdiam.dawn.util.NumberParsing;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.network.chat.Component;
@@ -36,6 +37,10 @@ public class ColorEntry extends TextFieldListEntry<Integer> {
     
     private final ColorDisplayWidget colorDisplayWidget;
     private boolean alpha;
+    // The last parsed text, render checks the same text several times per frame
+    private String parsedText;
+    private boolean parsedAlpha;
+    private ColorValue parsedValue;
     
     @ApiStatus.Internal
     @Deprecated
@@ -98,6 +103,7 @@ public class ColorEntry extends TextFieldListEntry<Integer> {
     @Deprecated
     public void setValue(int color) {
         textFieldWidget.setValue(getHexColorString(color));
+        notifyValueChanged();
     }
     
     @Override
@@ -137,34 +143,42 @@ public class ColorEntry extends TextFieldListEntry<Integer> {
     }
     
     protected ColorValue getColorValue(String str) {
-        try {
-            int color;
-            if (str.startsWith("#")) {
-                String stripHexStarter = stripHexStarter(str);
-                if (stripHexStarter.length() > 8) return ColorError.INVALID_COLOR.toValue();
-                if (!alpha && stripHexStarter.length() > 6) return ColorError.NO_ALPHA_ALLOWED.toValue();
-                color = (int) Long.parseLong(stripHexStarter, 16);
-            } else {
-                color = (int) Long.parseLong(str);
-            }
-            int a = color >> 24 & 0xFF;
-            if (!alpha && a > 0)
-                return ColorError.NO_ALPHA_ALLOWED.toValue();
-            if (a < 0 || a > 255)
-                return ColorError.INVALID_ALPHA.toValue();
-            int r = color >> 16 & 0xFF;
-            if (r < 0 || r > 255)
-                return ColorError.INVALID_RED.toValue();
-            int g = color >> 8 & 0xFF;
-            if (g < 0 || g > 255)
-                return ColorError.INVALID_GREEN.toValue();
-            int b = color & 0xFF;
-            if (b < 0 || b > 255)
-                return ColorError.INVALID_BLUE.toValue();
-            return new ColorValue(color);
-        } catch (NumberFormatException e) {
-            return ColorError.INVALID_COLOR.toValue();
+        if (parsedValue == null || parsedAlpha != alpha || !str.equals(parsedText)) {
+            parsedValue = parseColorValue(str);
+            parsedText = str;
+            parsedAlpha = alpha;
+        }
+        return parsedValue;
+    }
+    
+    protected ColorValue parseColorValue(String str) {
+        Long parsed;
+        if (str.startsWith("#")) {
+            String stripHexStarter = stripHexStarter(str);
+            if (stripHexStarter.length() > 8) return ColorError.INVALID_COLOR.toValue();
+            if (!alpha && stripHexStarter.length() > 6) return ColorError.NO_ALPHA_ALLOWED.toValue();
+            parsed = NumberParsing.parseLong(stripHexStarter, 16);
+        } else {
+            parsed = NumberParsing.parseLong(str);
         }
+        if (parsed == null)
+            return ColorError.INVALID_COLOR.toValue();
+        int color = (int) (long) parsed;
+        int a = color >> 24 & 0xFF;
+        if (!alpha && a > 0)
+            return ColorError.NO_ALPHA_ALLOWED.toValue();
+        if (a < 0 || a > 255)
+            return ColorError.INVALID_ALPHA.toValue();
+        int r = color >> 16 & 0xFF;
+        if (r < 0 || r > 255)
+            return ColorError.INVALID_RED.toValue();
+        int g = color >> 8 & 0xFF;
+        if (g < 0 || g > 255)
+            return ColorError.INVALID_GREEN.toValue();
+        int b = color & 0xFF;
+        if (b < 0 || b > 255)
+            return ColorError.INVALID_BLUE.toValue();
+        return new ColorValue(color);
     }
     
     protected String getHexColorString(int color) {
@@ -19,6 +19,8 @@
 
 package com.raxdiam.dawn.gui.entries;
 
+import com.raxdiam.dawn.util.NumberParsing;
+import com.raxdiam.dawn.util.ParseCache;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.minecraft.network.chat.Component;
@@ -32,6 +34,8 @@ import java.util.function.Supplier;
 
 @Environment(EnvType.CLIENT)
 public class DoubleListEntry extends AbstractNumberListEntry<Double> {
+    private final ParseCache<Double> parsedValue = new ParseCache<>(NumberParsing::parseDouble);
+    
     @ApiStatus.Internal
     @Deprecated
     public DoubleListEntry(Component fieldName, Double value, Component resetButtonKey, Supplier<Double> defaultValue, Consumer<Double> saveConsumer) {
@@ -69,24 +73,19 @@ public class DoubleListEntry extends AbstractNumberListEntry<Double> {
     
     @Override
     public Double getValue() {
-        try {
-            return Double.valueOf(textFieldWidget.getValue());
-        } catch (Exception e) {
-            return 0d;
-        }
+        Double value = parsedValue.get(textFieldWidget.getValue());
+        return value == null ? 0d : value;
     }
     
     @Override
     public Optional<Component> getError() {
-        try {
-            double i = Double.parseDouble(textFieldWidget.getValue());
-            if (i > maximum)
-                return Optional.of(Component.translatable("text.dawn-config.error.too_large", maximum));
-            else if (i < minimum)
-                return Optional.of(Component.translatable("text.dawn-config.error.too_small", minimum));
-        } catch (NumberFormatException ex) {
+        Double i = parsedValue.get(textFieldWidget.getValue());
+        if (i == null)
             return Optional.of(Component.translatable("text.dawn-config.error.not_valid_number_double"));
-        }
+        if (i > maximum)
+            return Optional.of(Component.translatable("text.dawn-config.error.too_large", maximum));
+        else if (i < minimum)
+            return Optional.of(Component.translatable("text.dawn-config.error.too_small", minimum));
         return super.getError();
     }
 }
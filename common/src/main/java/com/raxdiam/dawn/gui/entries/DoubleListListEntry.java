@@ -19,6 +19,8 @@
 
 package com.raxdiam.dawn.gui.entries;
 
+import com.raxdiam.dawn.util.NumberParsing;
+import com.raxdiam.dawn.util.ParseCache;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.minecraft.network.chat.Component;
@@ -72,6 +74,7 @@ public class DoubleListListEntry extends AbstractTextFieldListListEntry<Double,
     }
     
     public static class DoubleListCell extends AbstractTextFieldListListEntry.AbstractTextFieldListCell<Double, DoubleListCell, DoubleListListEntry> {
+        private final ParseCache<Double> parsedValue = new ParseCache<>(NumberParsing::parseDouble);
         
         public DoubleListCell(Double value, final DoubleListListEntry listListEntry) {
             super(value, listListEntry);
@@ -92,24 +95,19 @@ public class DoubleListListEntry extends AbstractTextFieldListListEntry<Double,
         }
         
         public Double getValue() {
-            try {
-                return Double.valueOf(widget.getValue());
-            } catch (NumberFormatException e) {
-                return 0d;
-            }
+            Double value = parsedValue.get(widget.getValue());
+            return value == null ? 0d : value;
         }
         
         @Override
         public Optional<Component> getError() {
-            try {
-                double i = Double.parseDouble(widget.getValue());
-                if (i > listListEntry.maximum)
-                    return Optional.of(Component.translatable("text.dawn-config.error.too_large", listListEntry.maximum));
-                else if (i < listListEntry.minimum)
-                    return Optional.of(Component.translatable("text.dawn-config.error.too_small", listListEntry.minimum));
-            } catch (NumberFormatException ex) {
+            Double i = parsedValue.get(widget.getValue());
+            if (i == null)
                 return Optional.of(Component.translatable("text.dawn-config.error.not_valid_number_double"));
-            }
+            if (i > listListEntry.maximum)
+                return Optional.of(Component.translatable("text.dawn-config.error.too_large", listListEntry.maximum));
+            else if (i < listListEntry.minimum)
+                return Optional.of(Component.translatable("text.dawn-config.error.too_small", listListEntry.minimum));
             return Optional.empty();
         }
         
@@ -22,16 +22,11 @@ package com.raxdiam.dawn.gui.entries;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.mojang.blaze3d.platform.Window;
-import com.mojang.blaze3d.systems.RenderSystem;
-import com.mojang.blaze3d.vertex.BufferBuilder;
-import com.mojang.blaze3d.vertex.DefaultVertexFormat;
-import com.mojang.blaze3d.vertex.Tesselator;
-import com.mojang.blaze3d.vertex.VertexFormat;
 import com.raxdiam.dawn.DawnConfigInitializer;
 import com.raxdiam.dawn.api.ScissorsHandler;
 import com.raxdiam.dawn.api.ScrollingContainer;
+import com.raxdiam.dawn.impl.QuadBatch;
 import com.raxdiam.dawn.math.Rectangle;
-import com.raxdiam.dawn.math.impl.PointHelper;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.minecraft.client.Minecraft;
@@ -45,7 +40,6 @@ import net.minecraft.client.gui.components.events.AbstractContainerEventHandler;
 import net.minecraft.client.gui.components.events.GuiEventListener;
 import net.minecraft.client.gui.narration.NarratableEntry;
 import net.minecraft.client.gui.navigation.FocusNavigationEvent;
-import net.minecraft.client.renderer.GameRenderer;
 import net.minecraft.network.chat.Component;
 import net.minecraft.util.Mth;
 import org.jetbrains.annotations.ApiStatus;
@@ -53,6 +47,10 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -66,6 +64,7 @@ public class DropdownBoxEntry<T> extends TooltipListEntry<T> {
     protected SelectionElement<T> selectionElement;
     @NotNull private final Supplier<T> defaultValue;
     private boolean suggestionMode = true;
+    private boolean asyncSearch = false;
     
     @ApiStatus.Internal
     @Deprecated
@@ -89,7 +88,7 @@ public class DropdownBoxEntry<T> extends TooltipListEntry<T> {
         this.selectionElement.bounds.y = y;
         Component displayedFieldName = getDisplayedFieldName();
         if (Minecraft.getInstance().font.isBidirectional()) {
-            graphics.drawString(Minecraft.getInstance().font, displayedFieldName.getVisualOrderText(), window.getGuiScaledWidth() - x - Minecraft.getInstance().font.width(displayedFieldName), y + 6, getPreferredTextColor());
+            graphics.drawString(Minecraft.getInstance().font, displayedFieldName.getVisualOrderText(), window.getGuiScaledWidth() - x - getDisplayedFieldNameWidth(), y + 6, getPreferredTextColor());
             this.resetButton.setX(x);
             this.selectionElement.bounds.x = x + resetButton.getWidth() + 1;
         } else {
@@ -115,6 +114,19 @@ public class DropdownBoxEntry<T> extends TooltipListEntry<T> {
         this.suggestionMode = suggestionMode;
     }
     
+    public boolean isAsyncSearch() {
+        return asyncSearch;
+    }
+    
+    /**
+     * Sets whether suggestions are ranked on a background thread. The menu keeps showing the
+     * previous suggestions until the ranking for the current search term is done, which keeps
+     * typing smooth in menus with many selections.
+     */
+    public void setAsyncSearch(boolean asyncSearch) {
+        this.asyncSearch = asyncSearch;
+    }
+    
     @Override
     public void updateSelected(boolean isSelected) {
         selectionElement.topRenderer.isSelected = isSelected;
@@ -283,11 +295,20 @@ public class DropdownBoxEntry<T> extends TooltipListEntry<T> {
             return entry.isSuggestionMode();
         }
         
+        public final boolean isAsyncSearch() {
+            return entry.isAsyncSearch();
+        }
+        
         @Override
         public abstract List<SelectionCellElement<R>> children();
     }
     
     public static class DefaultDropdownMenuElement<R> extends DropdownMenuElement<R> {
+        private static final ExecutorService SEARCH_EXECUTOR = new ThreadPoolExecutor(0, 1, 5, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "Dawn Config Dropdown Search");
+            thread.setDaemon(true);
+            return thread;
+        });
         @NotNull protected ImmutableList<R> selections;
         @NotNull protected List<SelectionCellElement<R>> cells;
         @NotNull protected List<SelectionCellElement<R>> currentElements;
@@ -297,11 +318,28 @@ public class DropdownBoxEntry<T> extends TooltipListEntry<T> {
         protected double scroll, target;
         protected long start;
         protected long duration;
+        private final List<SelectionCellElement<R>> createdCells;
+        private final List<SelectionCellElement<R>> renderedCells = new ArrayList<>();
+        private final List<SelectionCellElement<R>> lastRenderedCells = new ArrayList<>();
+        private DropdownRanking ranking;
+        private SearchJob pendingSearch;
+        private int[] editDistanceCosts = new int[16];
         
         public DefaultDropdownMenuElement(@NotNull ImmutableList<R> selections) {
             this.selections = selections;
-            this.cells = Lists.newArrayList();
-            this.currentElements = Lists.newArrayList();
+            this.createdCells = new ArrayList<>(Collections.nCopies(selections.size(), null));
+            this.cells = new AbstractList<>() {
+                @Override
+                public SelectionCellElement<R> get(int index) {
+                    return getCell(index);
+                }
+                
+                @Override
+                public int size() {
+                    return createdCells.size();
+                }
+            };
+            this.currentElements = new CurrentElements();
         }
         
         public double getMaxScroll() {
@@ -320,32 +358,66 @@ public class DropdownBoxEntry<T> extends TooltipListEntry<T> {
         
         @Override
         public void initCells() {
-            for (R selection : getSelections()) {
-                cells.add(getCellCreator().create(selection));
-            }
-            for (SelectionCellElement<R> cell : cells) {
+            search();
+        }
+        
+        /**
+         * Returns the cell of the selection at the given index, creating it the first time it is needed.
+         */
+        private SelectionCellElement<R> getCell(int index) {
+            SelectionCellElement<R> cell = createdCells.get(index);
+            if (cell == null) {
+                cell = getCellCreator().create(selections.get(index));
                 cell.entry = getEntry();
+                createdCells.set(index, cell);
             }
-            search();
+            return cell;
+        }
+        
+        /**
+         * Returns the search key of the selection at the given index. The default cell creator
+         * provides it without creating the cell.
+         */
+        @Nullable
+        protected Component getSearchKey(int index) {
+            if (getCellCreator() instanceof DefaultSelectionCellCreator<R> creator) {
+                return creator.toTextFunction.apply(selections.get(index));
+            }
+            return getCell(index).getSearchKey();
+        }
+        
+        private DropdownRanking getRanking() {
+            if (ranking == null) {
+                String[] keys = new String[selections.size()];
+                for (int i = 0; i < keys.length; i++) {
+                    Component key = getSearchKey(i);
+                    keys[i] = key == null ? null : key.getString().toLowerCase();
+                }
+                ranking = new DropdownRanking(keys);
+            }
+            return ranking;
         }
         
         public void search() {
+            if (pendingSearch != null) {
+                pendingSearch.cancelled = true;
+                pendingSearch = null;
+            }
             if (isSuggestionMode()) {
-                currentElements.clear();
                 String keyword = this.lastSearchKeyword.getString().toLowerCase();
-                for (SelectionCellElement<R> cell : cells) {
-                    Component key = cell.getSearchKey();
-                    if (key == null || key.getString().toLowerCase().contains(keyword))
-                        currentElements.add(cell);
-                }
-                if (!keyword.isEmpty()) {
-                    Comparator<SelectionCellElement<?>> c = Comparator.comparingDouble(i -> i.getSearchKey() == null ? Double.MAX_VALUE : similarity(i.getSearchKey().getString(), keyword));
-                    currentElements.sort(c.reversed());
+                if (keyword.isEmpty()) {
+                    ((CurrentElements) currentElements).show(DropdownRanking.all(selections.size()));
+                } else if (isAsyncSearch()) {
+                    // The search keys are taken here, as they may need cells to be created
+                    pendingSearch = new SearchJob(getRanking(), keyword);
+                    SEARCH_EXECUTOR.execute(pendingSearch);
+                    return;
+                } else {
+                    ((CurrentElements) currentElements).show(getRanking().rank(keyword, this::similarity));
                 }
                 scrollTo(0, false);
             } else {
-                currentElements.clear();
-                currentElements.addAll(cells);
+                ((CurrentElements) currentElements).show(DropdownRanking.all(selections.size()));
             }
         }
         
@@ -353,7 +425,14 @@ public class DropdownBoxEntry<T> extends TooltipListEntry<T> {
             s1 = s1.toLowerCase();
             s2 = s2.toLowerCase();
             
-            int[] costs = new int[s2.length() + 1];
+            // Deleting the surrounding characters is the cheapest edit to a substring
+            if (s1.contains(s2)) return s1.length() - s2.length();
+            if (s2.contains(s1)) return s2.length() - s1.length();
+            
+            if (editDistanceCosts.length <= s2.length()) {
+                editDistanceCosts = new int[s2.length() + 1];
+            }
+            int[] costs = editDistanceCosts;
             for (int i = 0; i <= s1.length(); i++) {
                 int lastValue = i;
                 for (int j = 0; j <= s2.length(); j++) {
@@ -394,6 +473,11 @@ public class DropdownBoxEntry<T> extends TooltipListEntry<T> {
                 lastSearchKeyword = getEntry().selectionElement.topRenderer.getSearchTerm();
                 search();
             }
+            if (pendingSearch != null && pendingSearch.isDone()) {
+                ((CurrentElements) currentElements).show(pendingSearch.getResult());
+                pendingSearch = null;
+                scrollTo(0, false);
+            }
             updatePosition(delta);
             lastRectangle = rectangle.clone();
             lastRectangle.translate(0, -1);
@@ -409,57 +493,50 @@ public class DropdownBoxEntry<T> extends TooltipListEntry<T> {
         public void lateRender(GuiGraphics graphics, int mouseX, int mouseY, float delta) {
             int last10Height = getHeight();
             int cWidth = getCellCreator().getCellWidth();
-            graphics.fill(lastRectangle.x, lastRectangle.y + lastRectangle.height, lastRectangle.x + cWidth, lastRectangle.y + lastRectangle.height + last10Height + 1, isExpanded() ? -1 : -6250336);
-            graphics.fill(lastRectangle.x + 1, lastRectangle.y + lastRectangle.height + 1, lastRectangle.x + cWidth - 1, lastRectangle.y + lastRectangle.height + last10Height, -16777216);
+            QuadBatch batch = QuadBatch.getInstance();
+            batch.fill(graphics, lastRectangle.x, lastRectangle.y + lastRectangle.height, lastRectangle.x + cWidth, lastRectangle.y + lastRectangle.height + last10Height + 1, isExpanded() ? -1 : -6250336);
+            batch.fill(graphics, lastRectangle.x + 1, lastRectangle.y + lastRectangle.height + 1, lastRectangle.x + cWidth - 1, lastRectangle.y + lastRectangle.height + last10Height, -16777216);
+            batch.flush(graphics);
             graphics.pose().pushPose();
             graphics.pose().translate(0, 0, 300f);
             
             ScissorsHandler.INSTANCE.scissor(new Rectangle(lastRectangle.x, lastRectangle.y + lastRectangle.height + 1, cWidth - 6, last10Height - 1));
-            double yy = lastRectangle.y + lastRectangle.height - scroll;
-            for (SelectionCellElement<R> cell : currentElements) {
-                if (yy + getCellCreator().getCellHeight() >= lastRectangle.y + lastRectangle.height && yy <= lastRectangle.y + lastRectangle.height + last10Height + 1) {
-                    graphics.fill(lastRectangle.x + 1, (int) yy, lastRectangle.x + getCellCreator().getCellWidth(), (int) yy + getCellCreator().getCellHeight(), 0xFF000000);
-                    cell.render(graphics, mouseX, mouseY, lastRectangle.x, (int) yy, getMaxScrollPosition() > 6 ? getCellCreator().getCellWidth() - 6 : getCellCreator().getCellWidth(), getCellCreator().getCellHeight(), delta);
-                } else
+            int cellHeight = getCellCreator().getCellHeight();
+            // Only the cells inside the menu are created and rendered, the ones scrolled out of it are told so once
+            int first = Math.max(0, (int) (scroll / cellHeight) - 1);
+            double yy = lastRectangle.y + lastRectangle.height - scroll + first * (double) cellHeight;
+            lastRenderedCells.clear();
+            lastRenderedCells.addAll(renderedCells);
+            renderedCells.clear();
+            double renderedY = yy;
+            for (int i = first; i < currentElements.size() && yy <= lastRectangle.y + lastRectangle.height + last10Height + 1; i++) {
+                if (yy + cellHeight >= lastRectangle.y + lastRectangle.height) {
+                    if (renderedCells.isEmpty())
+                        renderedY = yy;
+                    renderedCells.add(currentElements.get(i));
+                    batch.fill(graphics, lastRectangle.x + 1, (int) yy, lastRectangle.x + getCellCreator().getCellWidth(), (int) yy + cellHeight, 0xFF000000);
+                }
+                yy += cellHeight;
+            }
+            // The backgrounds of the rows do not overlap the other cells, so they are drawn together first
+            batch.flush(graphics);
+            yy = renderedY;
+            for (SelectionCellElement<R> cell : renderedCells) {
+                cell.render(graphics, mouseX, mouseY, lastRectangle.x, (int) yy, getMaxScrollPosition() > 6 ? getCellCreator().getCellWidth() - 6 : getCellCreator().getCellWidth(), cellHeight, delta);
+                yy += cellHeight;
+            }
+            for (SelectionCellElement<R> cell : lastRenderedCells) {
+                if (!renderedCells.contains(cell))
                     cell.dontRender(graphics, delta);
-                yy += getCellCreator().getCellHeight();
             }
             ScissorsHandler.INSTANCE.removeLastScissor();
             
             if (currentElements.isEmpty()) {
                 Font textRenderer = Minecraft.getInstance().font;
-                Component text = Component.translatable("text.dawn-config.dropdown.value.unknown");
+                Component text = Component.translatable(pendingSearch != null ? "text.dawn-config.dropdown.value.searching" : "text.dawn-config.dropdown.value.unknown");
                 graphics.drawString(textRenderer, text.getVisualOrderText(), (int) (lastRectangle.x + getCellCreator().getCellWidth() / 2f - textRenderer.width(text) / 2f), lastRectangle.y + lastRectangle.height + 3, -1);
             }
             
-            if (getMaxScrollPosition() > 6) {
-                RenderSystem.setShader(GameRenderer::getPositionTexColorShader);
-                int scrollbarPositionMinX = lastRectangle.x + getCellCreator().getCellWidth() - 6;
-                int scrollbarPositionMaxX = scrollbarPositionMinX + 6;
-                int height = (int) (((last10Height) * (last10Height)) / this.getMaxScrollPosition());
-                height = Mth.clamp(height, 32, last10Height - 8);
-                height -= Math.min((scroll < 0 ? (int) -scroll : scroll > getMaxScrollPosition() ? (int) scroll - getMaxScrollPosition() : 0), height * .95);
-                height = Math.max(10, height);
-                int minY = (int) Math.min(Math.max((int) scroll * (last10Height - height) / getMaxScrollPosition() + (lastRectangle.y + lastRectangle.height + 1), (lastRectangle.y + lastRectangle.height + 1)), (lastRectangle.y + lastRectangle.height + 1 + last10Height) - height);
-                
-                int bottomc = new Rectangle(scrollbarPositionMinX, minY, scrollbarPositionMaxX - scrollbarPositionMinX, height).contains(PointHelper.ofMouse()) ? 168 : 128;
-                int topc = new Rectangle(scrollbarPositionMinX, minY, scrollbarPositionMaxX - scrollbarPositionMinX, height).contains(PointHelper.ofMouse()) ? 222 : 172;
-                
-                Tesselator tesselator = Tesselator.getInstance();
-                BufferBuilder buffer = tesselator.begin(VertexFormat.Mode.QUADS, DefaultVertexFormat.POSITION_COLOR);
-                
-                // Bottom
-                buffer.addVertex(scrollbarPositionMinX, minY + height, 0.0F).setColor(bottomc, bottomc, bottomc, 255);
-                buffer.addVertex(scrollbarPositionMaxX, minY + height, 0.0F).setColor(bottomc, bottomc, bottomc, 255);
-                buffer.addVertex(scrollbarPositionMaxX, minY, 0.0F).setColor(bottomc, bottomc, bottomc, 255);
-                buffer.addVertex(scrollbarPositionMinX, minY, 0.0F).setColor(bottomc, bottomc, bottomc, 255);
-                
-                // Top
-                buffer.addVertex(scrollbarPositionMinX, (minY + height - 1), 0.0F).setColor(topc, topc, topc, 255);
-                buffer.addVertex((scrollbarPositionMaxX - 1), (minY + height - 1), 0.0F).setColor(topc, topc, topc, 255);
-                buffer.addVertex((scrollbarPositionMaxX - 1), minY, 0.0F).setColor(topc, topc, topc, 255);
-                buffer.addVertex(scrollbarPositionMinX, minY, 0.0F).setColor(topc, topc, topc, 255);
-            }
             graphics.pose().popPose();
         }
         
@@ -513,7 +590,16 @@ public class DropdownBoxEntry<T> extends TooltipListEntry<T> {
             if (!isExpanded())
                 return false;
             updateScrollingState(double_1, double_2, int_1);
-            return super.mouseClicked(double_1, double_2, int_1) || scrolling;
+            // Cells outside the menu are not rendered and cannot be clicked
+            for (SelectionCellElement<R> cell : renderedCells) {
+                if (cell.mouseClicked(double_1, double_2, int_1)) {
+                    setFocused(cell);
+                    if (int_1 == 0)
+                        setDragging(true);
+                    return true;
+                }
+            }
+            return scrolling;
         }
         
         public void offset(double value, boolean animated) {
@@ -538,6 +624,114 @@ public class DropdownBoxEntry<T> extends TooltipListEntry<T> {
         public List<SelectionCellElement<R>> children() {
             return currentElements;
         }
+        
+        @Override
+        public Optional<GuiEventListener> getChildAt(double mouseX, double mouseY) {
+            for (SelectionCellElement<R> cell : renderedCells) {
+                if (cell.isMouseOver(mouseX, mouseY))
+                    return Optional.of(cell);
+            }
+            return Optional.empty();
+        }
+        
+        /**
+         * Ranks the selections on the search executor. Only the latest job of a menu is ever
+         * read, the result is published through a volatile write once the ranking is complete.
+         */
+        private class SearchJob implements Runnable {
+            private final DropdownRanking ranking;
+            private final String keyword;
+            private volatile boolean cancelled;
+            private volatile DropdownRanking.Result result;
+            private volatile RuntimeException failure;
+            
+            private SearchJob(DropdownRanking ranking, String keyword) {
+                this.ranking = ranking;
+                this.keyword = keyword;
+            }
+            
+            @Override
+            public void run() {
+                if (cancelled) return;
+                try {
+                    result = ranking.rank(keyword, DefaultDropdownMenuElement.this::similarity, () -> cancelled);
+                } catch (RuntimeException e) {
+                    failure = e;
+                }
+            }
+            
+            private boolean isDone() {
+                return result != null || failure != null;
+            }
+            
+            private DropdownRanking.Result getResult() {
+                if (failure != null) {
+                    throw new IllegalStateException("Failed to search " + keyword, failure);
+                }
+                return result;
+            }
+        }
+        
+        /**
+         * The ranked matches of the last search, creating their cells as they are accessed.
+         * Modifying the list detaches it from the ranking until the next search.
+         */
+        private class CurrentElements extends AbstractList<SelectionCellElement<R>> {
+            private DropdownRanking.Result result = DropdownRanking.all(0);
+            private List<SelectionCellElement<R>> detached;
+            
+            private void show(DropdownRanking.Result result) {
+                this.result = result;
+                this.detached = null;
+                modCount++;
+                // The menu height follows the number of matches
+                if (getEntry() != null)
+                    getEntry().invalidateHeight();
+            }
+            
+            private List<SelectionCellElement<R>> detach() {
+                if (detached == null) {
+                    detached = new ArrayList<>(result.size());
+                    for (int i = 0; i < result.size(); i++) {
+                        detached.add(getCell(result.get(i)));
+                    }
+                }
+                return detached;
+            }
+            
+            @Override
+            public SelectionCellElement<R> get(int index) {
+                return detached != null ? detached.get(index) : getCell(result.get(index));
+            }
+            
+            @Override
+            public int size() {
+                return detached != null ? detached.size() : result.size();
+            }
+            
+            @Override
+            public SelectionCellElement<R> set(int index, SelectionCellElement<R> element) {
+                return detach().set(index, element);
+            }
+            
+            @Override
+            public void add(int index, SelectionCellElement<R> element) {
+                detach().add(index, element);
+                modCount++;
+            }
+            
+            @Override
+            public SelectionCellElement<R> remove(int index) {
+                modCount++;
+                return detach().remove(index);
+            }
+            
+            @Override
+            public void clear() {
+                show(DropdownRanking.all(0));
+                detached = new ArrayList<>();
+            }
+        }
     }
     
     public static abstract class SelectionCellCreator<R> {
@@ -0,0 +1,170 @@
+/*
+ * This file is part of Dawn Config (formerly 'Cloth Config').
+ * Copyright (C) 2020 - 2021 shedaniel
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+
+package com.raxdiam.dawn.gui.entries;
+
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.ToDoubleBiFunction;
+
+/**
+ * Ranks the selections of a dropdown menu against a search keyword.
+ * <p>
+ * Search keys are lowercased once when the ranking is built. A query scores
+ * every matching selection once, and the matches are then ordered lazily: the
+ * best ones are taken off a heap as they are requested, so showing the first
+ * rows of the menu does not sort all of the matches.
+ */
+@Environment(EnvType.CLIENT)
+final class DropdownRanking {
+    private final String[] keys;
+    
+    /**
+     * @param keys the lowercased search key of each selection, {@code null} for selections
+     *             that match every keyword
+     */
+    DropdownRanking(String[] keys) {
+        this.keys = keys;
+    }
+    
+    /**
+     * Returns the selections in their original order.
+     */
+    static Result all(int size) {
+        return new Result(size);
+    }
+    
+    /**
+     * Ranks the selections whose key contains the keyword, the most similar first. Selections
+     * without a key come before all others, ties keep their original order.
+     *
+     * @param keyword    the lowercased keyword
+     * @param similarity scores a key against the keyword
+     */
+    Result rank(String keyword, ToDoubleBiFunction<String, String> similarity) {
+        return rank(keyword, similarity, () -> false);
+    }
+    
+    /**
+     * Ranks the selections like {@link #rank(String, ToDoubleBiFunction)}, giving up as soon as
+     * the ranking is cancelled.
+     *
+     * @param cancelled checked periodically while scoring
+     * @return the ranked selections, or {@code null} if the ranking was cancelled
+     */
+    @Nullable
+    Result rank(String keyword, ToDoubleBiFunction<String, String> similarity, BooleanSupplier cancelled) {
+        int[] matches = new int[keys.length];
+        double[] scores = new double[keys.length];
+        int size = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if ((i & 1023) == 0 && cancelled.getAsBoolean()) {
+                return null;
+            }
+            String key = keys[i];
+            if (key == null) {
+                matches[size] = i;
+                scores[size++] = Double.MAX_VALUE;
+            } else if (key.contains(keyword)) {
+                matches[size] = i;
+                scores[size++] = similarity.applyAsDouble(key, keyword);
+            }
+        }
+        return new Result(matches, scores, size);
+    }
+    
+    static final class Result {
+        private final int size;
+        private final int[] matches;
+        private final double[] scores;
+        private int[] heap;
+        private int heapSize;
+        private int[] ranked;
+        private int rankedSize;
+        
+        private Result(int size) {
+            this.size = size;
+            this.matches = null;
+            this.scores = null;
+        }
+        
+        private Result(int[] matches, double[] scores, int size) {
+            this.size = size;
+            this.matches = matches;
+            this.scores = scores;
+        }
+        
+        int size() {
+            return size;
+        }
+        
+        /**
+         * Returns the index of the selection at the given rank.
+         */
+        int get(int rank) {
+            if (rank < 0 || rank >= size) {
+                throw new IndexOutOfBoundsException(rank);
+            }
+            if (matches == null) {
+                return rank;
+            }
+            if (heap == null) {
+                heap = new int[size];
+                for (int i = 0; i < size; i++) {
+                    heap[i] = i;
+                }
+                heapSize = size;
+                for (int i = size / 2 - 1; i >= 0; i--) {
+                    siftDown(i);
+                }
+                ranked = new int[size];
+            }
+            while (rankedSize <= rank) {
+                ranked[rankedSize++] = matches[heap[0]];
+                heap[0] = heap[--heapSize];
+                siftDown(0);
+            }
+            return ranked[rank];
+        }
+        
+        private void siftDown(int i) {
+            int match = heap[i];
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= heapSize) break;
+                if (child + 1 < heapSize && before(heap[child + 1], heap[child])) {
+                    child++;
+                }
+                if (!before(heap[child], match)) break;
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = match;
+        }
+        
+        private boolean before(int a, int b) {
+            // Matches are collected in selection order, so comparing positions breaks ties stably
+            return scores[a] > scores[b] || (scores[a] == scores[b] && a < b);
+        }
+    }
+}
@@ -19,6 +19,8 @@
 
 package com.raxdiam.dawn.gui.entries;
 
+import com.raxdiam.dawn.util.NumberParsing;
+import com.raxdiam.dawn.util.ParseCache;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.minecraft.network.chat.Component;
@@ -32,6 +34,8 @@ import java.util.function.Supplier;
 
 @Environment(EnvType.CLIENT)
 public class FloatListEntry extends AbstractNumberListEntry<Float> {
+    private final ParseCache<Float> parsedValue = new ParseCache<>(NumberParsing::parseFloat);
+    
     @ApiStatus.Internal
     @Deprecated
     public FloatListEntry(Component fieldName, Float value, Component resetButtonKey, Supplier<Float> defaultValue, Consumer<Float> saveConsumer) {
@@ -69,24 +73,19 @@ public class FloatListEntry extends AbstractNumberListEntry<Float> {
     
     @Override
     public Float getValue() {
-        try {
-            return Float.valueOf(textFieldWidget.getValue());
-        } catch (Exception e) {
-            return 0f;
-        }
+        Float value = parsedValue.get(textFieldWidget.getValue());
+        return value == null ? 0f : value;
     }
     
     @Override
     public Optional<Component> getError() {
-        try {
-            float i = Float.parseFloat(textFieldWidget.getValue());
-            if (i > maximum)
-                return Optional.of(Component.translatable("text.dawn-config.error.too_large", maximum));
-            else if (i < minimum)
-                return Optional.of(Component.translatable("text.dawn-config.error.too_small", minimum));
-        } catch (NumberFormatException ex) {
+        Float i = parsedValue.get(textFieldWidget.getValue());
+        if (i == null)
             return Optional.of(Component.translatable("text.dawn-config.error.not_valid_number_float"));
-        }
+        if (i > maximum)
+            return Optional.of(Component.translatable("text.dawn-config.error.too_large", maximum));
+        else if (i < minimum)
+            return Optional.of(Component.translatable("text.dawn-config.error.too_small", minimum));
         return super.getError();
     }
 }
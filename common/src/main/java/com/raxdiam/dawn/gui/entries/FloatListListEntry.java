@@ -19,6 +19,8 @@
 
 package com.raxdiam.dawn.gui.entries;
 
+import com.raxdiam.dawn.util.NumberParsing;
+import com.raxdiam.dawn.util.ParseCache;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.minecraft.network.chat.Component;
@@ -72,6 +74,7 @@ public class FloatListListEntry extends AbstractTextFieldListListEntry<Float, Fl
     }
     
     public static class FloatListCell extends AbstractTextFieldListListEntry.AbstractTextFieldListCell<Float, FloatListCell, FloatListListEntry> {
+        private final ParseCache<Float> parsedValue = new ParseCache<>(NumberParsing::parseFloat);
         
         public FloatListCell(Float value, FloatListListEntry listListEntry) {
             super(value, listListEntry);
@@ -92,24 +95,19 @@ public class FloatListListEntry extends AbstractTextFieldListListEntry<Float, Fl
         }
         
         public Float getValue() {
-            try {
-                return Float.valueOf(widget.getValue());
-            } catch (NumberFormatException e) {
-                return 0f;
-            }
+            Float value = parsedValue.get(widget.getValue());
+            return value == null ? 0f : value;
         }
         
         @Override
         public Optional<Component> getError() {
-            try {
-                float i = Float.parseFloat(widget.getValue());
-                if (i > listListEntry.maximum)
-                    return Optional.of(Component.translatable("text.dawn-config.error.too_large", listListEntry.maximum));
-                else if (i < listListEntry.minimum)
-                    return Optional.of(Component.translatable("text.dawn-config.error.too_small", listListEntry.minimum));
-            } catch (NumberFormatException ex) {
+            Float i = parsedValue.get(widget.getValue());
+            if (i == null)
                 return Optional.of(Component.translatable("text.dawn-config.error.not_valid_number_float"));
-            }
+            if (i > listListEntry.maximum)
+                return Optional.of(Component.translatable("text.dawn-config.error.too_large", listListEntry.maximum));
+            else if (i < listListEntry.minimum)
+                return Optional.of(Component.translatable("text.dawn-config.error.too_small", listListEntry.minimum));
             return Optional.empty();
         }
     }
@@ -19,6 +19,8 @@
 
 package com.raxdiam.dawn.gui.entries;
 
+import com.raxdiam.dawn.util.NumberParsing;
+import com.raxdiam.dawn.util.ParseCache;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.minecraft.network.chat.Component;
@@ -32,6 +34,8 @@ import java.util.function.Supplier;
 
 @Environment(EnvType.CLIENT)
 public class IntegerListEntry extends AbstractNumberListEntry<Integer> {
+    private final ParseCache<Integer> parsedValue = new ParseCache<>(NumberParsing::parseInt);
+    
     @ApiStatus.Internal
     @Deprecated
     public IntegerListEntry(Component fieldName, Integer value, Component resetButtonKey, Supplier<Integer> defaultValue, Consumer<Integer> saveConsumer) {
@@ -69,24 +73,19 @@ public class IntegerListEntry extends AbstractNumberListEntry<Integer> {
     
     @Override
     public Integer getValue() {
-        try {
-            return Integer.valueOf(textFieldWidget.getValue());
-        } catch (Exception e) {
-            return 0;
-        }
+        Integer value = parsedValue.get(textFieldWidget.getValue());
+        return value == null ? 0 : value;
     }
     
     @Override
     public Optional<Component> getError() {
-        try {
-            int i = Integer.parseInt(textFieldWidget.getValue());
-            if (i > maximum)
-                return Optional.of(Component.translatable("text.dawn-config.error.too_large", maximum));
-            else if (i < minimum)
-                return Optional.of(Component.translatable("text.dawn-config.error.too_small", minimum));
-        } catch (NumberFormatException ex) {
+        Integer i = parsedValue.get(textFieldWidget.getValue());
+        if (i == null)
             return Optional.of(Component.translatable("text.dawn-config.error.not_valid_number_int"));
-        }
+        if (i > maximum)
+            return Optional.of(Component.translatable("text.dawn-config.error.too_large", maximum));
+        else if (i < minimum)
+            return Optional.of(Component.translatable("text.dawn-config.error.too_small", minimum));
         return super.getError();
     }
 }
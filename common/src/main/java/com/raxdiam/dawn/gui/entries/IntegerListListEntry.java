@@ -19,6 +19,8 @@
 
 package com.raxdiam.dawn.gui.entries;
 
+import com.raxdiam.dawn.util.NumberParsing;
+import com.raxdiam.dawn.util.ParseCache;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.minecraft.network.chat.Component;
@@ -72,6 +74,7 @@ public class IntegerListListEntry extends AbstractTextFieldListListEntry<Integer
     }
     
     public static class IntegerListCell extends AbstractTextFieldListListEntry.AbstractTextFieldListCell<Integer, IntegerListCell, IntegerListListEntry> {
+        private final ParseCache<Integer> parsedValue = new ParseCache<>(NumberParsing::parseInt);
         
         public IntegerListCell(Integer value, IntegerListListEntry listListEntry) {
             super(value, listListEntry);
@@ -92,24 +95,19 @@ public class IntegerListListEntry extends AbstractTextFieldListListEntry<Integer
         }
         
         public Integer getValue() {
-            try {
-                return Integer.valueOf(widget.getValue());
-            } catch (NumberFormatException e) {
-                return 0;
-            }
+            Integer value = parsedValue.get(widget.getValue());
+            return value == null ? 0 : value;
         }
         
         @Override
         public Optional<Component> getError() {
-            try {
-                int i = Integer.parseInt(widget.getValue());
-                if (i > listListEntry.maximum)
-                    return Optional.of(Component.translatable("text.dawn-config.error.too_large", listListEntry.maximum));
-                else if (i < listListEntry.minimum)
-                    return Optional.of(Component.translatable("text.dawn-config.error.too_small", listListEntry.minimum));
-            } catch (NumberFormatException ex) {
+            Integer i = parsedValue.get(widget.getValue());
+            if (i == null)
                 return Optional.of(Component.translatable("text.dawn-config.error.not_valid_number_int"));
-            }
+            if (i > listListEntry.maximum)
+                return Optional.of(Component.translatable("text.dawn-config.error.too_large", listListEntry.maximum));
+            else if (i < listListEntry.minimum)
+                return Optional.of(Component.translatable("text.dawn-config.error.too_small", listListEntry.minimum));
             return Optional.empty();
         }
     }
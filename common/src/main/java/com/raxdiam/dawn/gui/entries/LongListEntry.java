@@ -19,6 +19,8 @@
 
 package com.raxdiam.dawn.gui.entries;
 
+import com.raxdiam.dawn.util.NumberParsing;
+import com.raxdiam.dawn.util.ParseCache;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.minecraft.network.chat.Component;
@@ -32,6 +34,8 @@ import java.util.function.Supplier;
 
 @Environment(EnvType.CLIENT)
 public class LongListEntry extends AbstractNumberListEntry<Long> {
+    private final ParseCache<Long> parsedValue = new ParseCache<>(NumberParsing::parseLong);
+    
     @ApiStatus.Internal
     @Deprecated
     public LongListEntry(Component fieldName, Long value, Component resetButtonKey, Supplier<Long> defaultValue, Consumer<Long> saveConsumer) {
@@ -69,24 +73,19 @@ public class LongListEntry extends AbstractNumberListEntry<Long> {
     
     @Override
     public Long getValue() {
-        try {
-            return Long.valueOf(textFieldWidget.getValue());
-        } catch (Exception e) {
-            return 0L;
-        }
+        Long value = parsedValue.get(textFieldWidget.getValue());
+        return value == null ? 0L : value;
     }
     
     @Override
     public Optional<Component> getError() {
-        try {
-            long i = Long.parseLong(textFieldWidget.getValue());
-            if (i > maximum)
-                return Optional.of(Component.translatable("text.dawn-config.error.too_large", maximum));
-            else if (i < minimum)
-                return Optional.of(Component.translatable("text.dawn-config.error.too_small", minimum));
-        } catch (NumberFormatException ex) {
+        Long i = parsedValue.get(textFieldWidget.getValue());
+        if (i == null)
             return Optional.of(Component.translatable("text.dawn-config.error.not_valid_number_long"));
-        }
+        if (i > maximum)
+            return Optional.of(Component.translatable("text.dawn-config.error.too_large", maximum));
+        else if (i < minimum)
+            return Optional.of(Component.translatable("text.dawn-config.error.too_small", minimum));
         return super.getError();
     }
 }
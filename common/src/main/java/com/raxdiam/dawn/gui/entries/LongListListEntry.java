@@ -19,6 +19,8 @@
 
 package com.raxdiam.dawn.gui.entries;
 
+import com.raxdiam.dawn.util.NumberParsing;
+import com.raxdiam.dawn.util.ParseCache;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.minecraft.network.chat.Component;
@@ -72,6 +74,7 @@ public class LongListListEntry extends AbstractTextFieldListListEntry<Long, Long
     }
     
     public static class LongListCell extends AbstractTextFieldListListEntry.AbstractTextFieldListCell<Long, LongListCell, LongListListEntry> {
+        private final ParseCache<Long> parsedValue = new ParseCache<>(NumberParsing::parseLong);
         
         public LongListCell(Long value, LongListListEntry listListEntry) {
             super(value, listListEntry);
@@ -92,24 +95,19 @@ public class LongListListEntry extends AbstractTextFieldListListEntry<Long, Long
         }
         
         public Long getValue() {
-            try {
-                return Long.valueOf(widget.getValue());
-            } catch (NumberFormatException e) {
-                return 0L;
-            }
+            Long value = parsedValue.get(widget.getValue());
+            return value == null ? 0L : value;
         }
         
         @Override
         public Optional<Component> getError() {
-            try {
-                long l = Long.parseLong(widget.getValue());
-                if (l > listListEntry.maximum)
-                    return Optional.of(Component.translatable("text.dawn-config.error.too_large", listListEntry.maximum));
-                else if (l < listListEntry.minimum)
-                    return Optional.of(Component.translatable("text.dawn-config.error.too_small", listListEntry.minimum));
-            } catch (NumberFormatException ex) {
+            Long l = parsedValue.get(widget.getValue());
+            if (l == null)
                 return Optional.of(Component.translatable("text.dawn-config.error.not_valid_number_long"));
-            }
+            if (l > listListEntry.maximum)
+                return Optional.of(Component.translatable("text.dawn-config.error.too_large", listListEntry.maximum));
+            else if (l < listListEntry.minimum)
+                return Optional.of(Component.translatable("text.dawn-config.error.too_small", listListEntry.minimum));
             return Optional.empty();
         }
     }
@@ -103,6 +103,7 @@ public class LongSliderEntry extends TooltipListEntry<Long> {
         sliderWidget.setValue((Mth.clamp(value, minimum, maximum) - minimum) / (double) Math.abs(maximum - minimum));
         this.value.set(Math.min(Math.max(value, minimum), maximum));
         sliderWidget.updateMessage();
+        notifyValueChanged();
     }
     
     @Override
@@ -145,7 +146,7 @@ public class LongSliderEntry extends TooltipListEntry<Long> {
         this.sliderWidget.setY(y);
         Component displayedFieldName = getDisplayedFieldName();
         if (Minecraft.getInstance().font.isBidirectional()) {
-            graphics.drawString(Minecraft.getInstance().font, displayedFieldName.getVisualOrderText(), window.getGuiScaledWidth() - x - Minecraft.getInstance().font.width(displayedFieldName), y + 6, getPreferredTextColor());
+            graphics.drawString(Minecraft.getInstance().font, displayedFieldName.getVisualOrderText(), window.getGuiScaledWidth() - x - getDisplayedFieldNameWidth(), y + 6, getPreferredTextColor());
             this.resetButton.setX(x);
             this.sliderWidget.setX(x + resetButton.getWidth() + 1);
         } else {
@@ -223,6 +223,7 @@ public class MultiElementListEntry<T> extends TooltipListEntry<T> implements Exp
     @Override
     public void setExpanded(boolean expanded) {
         this.expanded = expanded;
+        invalidateHeight();
     }
     
     public class CategoryLabelWidget implements GuiEventListener, NarratableEntry {
@@ -76,6 +76,7 @@ public class SubCategoryListEntry extends TooltipListEntry<List<AbstractConfigLi
     @Override
     public void setExpanded(boolean expanded) {
         this.expanded = expanded;
+        invalidateHeight();
     }
     
     @Override
@@ -105,7 +106,7 @@ public class SubCategoryListEntry extends TooltipListEntry<List<AbstractConfigLi
             @Override
             public Iterator<AbstractConfigListEntry> iterator() {
                 return Iterators.filter(entries.iterator(), entry -> {
-                    return entry.isDisplayed() && getConfigScreen() != null && getConfigScreen().matchesSearch(entry.getSearchTags());
+                    return entry.isDisplayed() && getConfigScreen() != null && getConfigScreen().matchesSearch(entry);
                 });
             }
             
@@ -158,7 +159,7 @@ public class SubCategoryListEntry extends TooltipListEntry<List<AbstractConfigLi
     @Override
     public void updateSelected(boolean isSelected) {
         for (AbstractConfigListEntry<?> entry : entries) {
-            entry.updateSelected(isExpanded() && isSelected && getFocused() == entry && entry.isDisplayed() && getConfigScreen().matchesSearch(entry.getSearchTags()));
+            entry.updateSelected(isExpanded() && isSelected && getFocused() == entry && entry.isDisplayed() && getConfigScreen().matchesSearch(entry));
         }
     }
     
@@ -46,6 +46,9 @@ public abstract class TextFieldListEntry<T> extends TooltipListEntry<T> {
     protected T original;
     protected List<AbstractWidget> widgets;
     private boolean isSelected = false;
+    // The text the reset button state was last computed for, it only changes with the text
+    private String resetStateText;
+    private boolean resettable;
     
     @ApiStatus.Internal
     @Deprecated
@@ -102,6 +105,7 @@ public abstract class TextFieldListEntry<T> extends TooltipListEntry<T> {
     @Deprecated
     public void setValue(String s) {
         textFieldWidget.setValue(String.valueOf(s));
+        notifyValueChanged();
     }
     
     protected String stripAddText(String s) {
@@ -121,13 +125,18 @@ public abstract class TextFieldListEntry<T> extends TooltipListEntry<T> {
     public void render(GuiGraphics graphics, int index, int y, int x, int entryWidth, int entryHeight, int mouseX, int mouseY, boolean isHovered, float delta) {
         super.render(graphics, index, y, x, entryWidth, entryHeight, mouseX, mouseY, isHovered, delta);
         Window window = Minecraft.getInstance().getWindow();
-        this.resetButton.active = isEditable() && getDefaultValue().isPresent() && !isMatchDefault(textFieldWidget.getValue());
+        String text = textFieldWidget.getValue();
+        if (!text.equals(resetStateText)) {
+            this.resettable = getDefaultValue().isPresent() && !isMatchDefault(text);
+            this.resetStateText = text;
+        }
+        this.resetButton.active = isEditable() && resettable;
         this.resetButton.setY(y);
         this.textFieldWidget.setEditable(isEditable());
         this.textFieldWidget.setY(y + 1);
         Component displayedFieldName = getDisplayedFieldName();
         if (Minecraft.getInstance().font.isBidirectional()) {
-            graphics.drawString(Minecraft.getInstance().font, displayedFieldName.getVisualOrderText(), window.getGuiScaledWidth() - x - Minecraft.getInstance().font.width(displayedFieldName), y + 6, getPreferredTextColor());
+            graphics.drawString(Minecraft.getInstance().font, displayedFieldName.getVisualOrderText(), window.getGuiScaledWidth() - x - getDisplayedFieldNameWidth(), y + 6, getPreferredTextColor());
             this.resetButton.setX(x);
             this.textFieldWidget.setX(x + resetButton.getWidth());
         } else {
@@ -78,10 +78,13 @@ public class TextListEntry extends TooltipListEntry<Object> {
     public void render(GuiGraphics graphics, int index, int y, int x, int entryWidth, int entryHeight, int mouseX, int mouseY, boolean isHovered, float delta) {
         super.render(graphics, index, y, x, entryWidth, entryHeight, mouseX, mouseY, isHovered, delta);
         if (this.savedWidth != entryWidth || this.savedX != x || this.savedY != y) {
+            int height = getItemHeight();
             this.wrappedLines = this.textRenderer.split(this.text, entryWidth);
             this.savedWidth = entryWidth;
             this.savedX = x;
             this.savedY = y;
+            if (getItemHeight() != height)
+                invalidateHeight();
         }
         int yy = y + 7;
         int textColor = isEnabled() ? color : DISABLED_COLOR;
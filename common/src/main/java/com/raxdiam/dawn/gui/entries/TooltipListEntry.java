@@ -32,10 +32,10 @@ import org.jetbrains.annotations.Nullable;
 import java.util.Arrays;
 import java.util.Optional;
 import java.util.function.Supplier;
-import java.util.stream.Stream;
 
 @Environment(EnvType.CLIENT)
 public abstract class TooltipListEntry<T> extends AbstractConfigListEntry<T> {
+    private static final Component DISABLED_TOOLTIP = Component.translatable("text.dawn-config.disabled_tooltip");
     @Nullable private Supplier<Optional<Component[]>> tooltipSupplier;
     
     @ApiStatus.Internal
@@ -62,18 +62,18 @@ public abstract class TooltipListEntry<T> extends AbstractConfigListEntry<T> {
     }
     
     public Optional<Component[]> getTooltip() {
-        Stream<Component> tooltipStream = Stream.ofNullable(tooltipSupplier)
-                .map(Supplier::get)
-                .flatMap(Optional::stream)
-                .flatMap(Arrays::stream);
-        
-        @Nullable Component disabled = this.isEnabled() ? null : Component.translatable("text.dawn-config.disabled_tooltip");
-        
-        Component[] lines = Stream.concat(tooltipStream, Stream.ofNullable(disabled))
-                .toArray(Component[]::new);
-        
-        return lines.length < 1 ? Optional.empty() : Optional.of(lines);
+        @Nullable Component[] tooltip = tooltipSupplier == null ? null : tooltipSupplier.get().orElse(null);
+        boolean disabled = !this.isEnabled();
         
+        if (!disabled) {
+            return tooltip == null || tooltip.length < 1 ? Optional.empty() : Optional.of(tooltip.clone());
+        }
+        if (tooltip == null) {
+            return Optional.of(new Component[]{DISABLED_TOOLTIP});
+        }
+        Component[] lines = Arrays.copyOf(tooltip, tooltip.length + 1);
+        lines[tooltip.length] = DISABLED_TOOLTIP;
+        return Optional.of(lines);
     }
     
     public Optional<Component[]> getTooltip(int mouseX, int mouseY) {
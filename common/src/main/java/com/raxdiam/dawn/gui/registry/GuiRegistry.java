@@ -19,26 +19,31 @@
 
 package com.raxdiam.dawn.gui.registry;
 
+import com.raxdiam.dawn.ConfigClassModel;
 import com.raxdiam.dawn.gui.registry.api.GuiProvider;
 import com.raxdiam.dawn.gui.registry.api.GuiRegistryAccess;
 import com.raxdiam.dawn.gui.registry.api.GuiTransformer;
 import com.raxdiam.dawn.api.AbstractConfigListEntry;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
+import org.jetbrains.annotations.Nullable;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
-import java.util.function.Supplier;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Environment(EnvType.CLIENT)
 public final class GuiRegistry implements GuiRegistryAccess {
     
     private Map<Priority, List<ProviderEntry>> providers = new HashMap<>();
     private List<TransformerEntry> transformers = new ArrayList<>();
+    /**
+     * The resolved provider and transformer chain per field, cleared whenever
+     * a provider or transformer is registered.
+     */
+    private final Map<Field, Dispatch> dispatchCache = new ConcurrentHashMap<>();
     
     public GuiRegistry() {
         for (Priority priority : Priority.values()) {
@@ -46,12 +51,26 @@ public final class GuiRegistry implements GuiRegistryAccess {
         }
     }
     
-    private static <T> Optional<T> firstPresent(Stream<Supplier<Optional<T>>> optionals) {
-        return optionals
-                .map(Supplier::get)
-                .filter(Optional::isPresent)
-                .findFirst()
-                .orElse(Optional.empty());
+    private Dispatch dispatch(Field field) {
+        return dispatchCache.computeIfAbsent(field, this::resolve);
+    }
+    
+    private Dispatch resolve(Field field) {
+        GuiProvider provider = null;
+        search:
+        for (Priority priority : Priority.values()) {
+            for (ProviderEntry entry : providers.get(priority)) {
+                if (entry.predicate.test(field)) {
+                    provider = entry.provider;
+                    break search;
+                }
+            }
+        }
+        List<GuiTransformer> matchedTransformers = this.transformers.stream()
+                .filter(entry -> entry.predicate.test(field))
+                .map(entry -> entry.transformer)
+                .toList();
+        return new Dispatch(provider, matchedTransformers);
     }
     
     @Override
@@ -62,17 +81,8 @@ public final class GuiRegistry implements GuiRegistryAccess {
             Object defaults,
             GuiRegistryAccess registry
     ) {
-        return firstPresent(
-                Arrays.stream(Priority.values())
-                        .map(priority ->
-                                (Supplier<Optional<ProviderEntry>>) () ->
-                                        providers.get(priority).stream()
-                                                .filter(entry -> entry.predicate.test(field))
-                                                .findFirst()
-                        )
-        )
-                .map(entry -> entry.provider.get(i18n, field, config, defaults, registry))
-                .orElse(null);
+        GuiProvider provider = dispatch(field).provider;
+        return provider == null ? null : provider.get(i18n, field, config, defaults, registry);
     }
     
     @Override
@@ -84,12 +94,7 @@ public final class GuiRegistry implements GuiRegistryAccess {
             Object defaults,
             GuiRegistryAccess registry
     ) {
-        List<GuiTransformer> matchedTransformers = this.transformers.stream()
-                .filter(entry -> entry.predicate.test(field))
-                .map(entry -> entry.transformer)
-                .collect(Collectors.toList());
-        
-        for (GuiTransformer transformer : matchedTransformers) {
+        for (GuiTransformer transformer : dispatch(field).transformers) {
             guis = transformer.transform(guis, i18n, field, config, defaults, registry);
         }
         
@@ -98,6 +103,7 @@ public final class GuiRegistry implements GuiRegistryAccess {
     
     private void registerProvider(Priority priority, GuiProvider provider, Predicate<Field> predicate) {
         providers.computeIfAbsent(priority, p -> new ArrayList<>()).add(new ProviderEntry(predicate, provider));
+        dispatchCache.clear();
     }
     
     public final void registerTypeProvider(GuiProvider provider, Class... types) {
@@ -113,7 +119,7 @@ public final class GuiRegistry implements GuiRegistryAccess {
     @SafeVarargs
     public final void registerAnnotationProvider(GuiProvider provider, Class<? extends Annotation>... types) {
         for (Class<? extends Annotation> type : types) {
-            registerProvider(Priority.FIRST, provider, field -> field.isAnnotationPresent(type));
+            registerProvider(Priority.FIRST, provider, field -> ConfigClassModel.of(field).isAnnotationPresent(type));
         }
     }
     
@@ -123,7 +129,7 @@ public final class GuiRegistry implements GuiRegistryAccess {
             registerProvider(
                     Priority.FIRST,
                     provider,
-                    field -> predicate.test(field) && field.isAnnotationPresent(type)
+                    field -> predicate.test(field) && ConfigClassModel.of(field).isAnnotationPresent(type)
             );
         }
     }
@@ -131,6 +137,7 @@ public final class GuiRegistry implements GuiRegistryAccess {
     @SuppressWarnings("WeakerAccess")
     public void registerPredicateTransformer(GuiTransformer transformer, Predicate<Field> predicate) {
         transformers.add(new TransformerEntry(predicate, transformer));
+        dispatchCache.clear();
     }
     
     @SafeVarargs
@@ -142,7 +149,7 @@ public final class GuiRegistry implements GuiRegistryAccess {
     @SafeVarargs
     public final void registerAnnotationTransformer(GuiTransformer transformer, Predicate<Field> predicate, Class<? extends Annotation>... types) {
         for (Class<? extends Annotation> type : types) {
-            registerPredicateTransformer(transformer, field -> predicate.test(field) && field.isAnnotationPresent(type));
+            registerPredicateTransformer(transformer, field -> predicate.test(field) && ConfigClassModel.of(field).isAnnotationPresent(type));
         }
     }
     
@@ -162,6 +169,17 @@ public final class GuiRegistry implements GuiRegistryAccess {
         }
     }
     
+    private static class Dispatch {
+        @Nullable
+        final GuiProvider provider;
+        final List<GuiTransformer> transformers;
+        
+        Dispatch(@Nullable GuiProvider provider, List<GuiTransformer> transformers) {
+            this.provider = provider;
+            this.transformers = transformers;
+        }
+    }
+    
     private static class TransformerEntry {
         final Predicate<Field> predicate;
         final GuiTransformer transformer;
@@ -26,6 +26,7 @@ import com.mojang.blaze3d.vertex.DefaultVertexFormat;
 import com.mojang.blaze3d.vertex.Tesselator;
 import com.mojang.blaze3d.vertex.VertexFormat;
 import com.raxdiam.dawn.api.*;
+import com.raxdiam.dawn.impl.QuadBatch;
 import com.raxdiam.dawn.math.Rectangle;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
@@ -47,7 +48,6 @@ import net.minecraft.resources.ResourceLocation;
 import net.minecraft.util.Mth;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
-import org.joml.Matrix4f;
 
 import java.util.*;
 import java.util.function.Predicate;
@@ -61,6 +61,15 @@ public abstract class DynamicEntryListWidget<E extends DynamicEntryListWidget.En
     private final List<E> entries = new Entries();
     private float totalTicks = 1.0f;
     private List<E> visibleEntries = Collections.emptyList();
+    private boolean visibleEntriesDirty = true;
+    private final RequirementGraph requirementGraph = new RequirementGraph();
+    /**
+     * Prefix sums of the visible item heights, {@code rowOffsets[i]} being the
+     * distance from the first row to the top of row {@code i}.
+     */
+    private int[] rowOffsets = new int[1];
+    private int layoutMaxPosition;
+    private boolean layoutDirty = true;
     public int width;
     public int height;
     public int top;
@@ -104,9 +113,77 @@ public abstract class DynamicEntryListWidget<E extends DynamicEntryListWidget.En
     }
     
     private void updateVisibleChildren() {
-        this.visibleEntries = this.children().stream()
-                .filter(HideableWidget::isDisplayed)
-                .toList();
+        List<E> visibleEntries = new ArrayList<>(this.visibleEntries.size());
+        for (E child : this.children()) {
+            if (child.isDisplayed())
+                visibleEntries.add(child);
+        }
+        if (!visibleEntries.equals(this.visibleEntries)) {
+            this.invalidateLayout();
+        }
+        this.visibleEntries = Collections.unmodifiableList(visibleEntries);
+        this.visibleEntriesDirty = false;
+    }
+    
+    /**
+     * Marks the cached row layout as stale, it will be rebuilt on next access.
+     * <p>
+     * Item heights are not re-read every frame, entries changing their height call
+     * {@link Entry#invalidateHeight()}. Input handled by an entry and requirement
+     * changes invalidate the layout as well, as they are what usually changes heights.
+     */
+    public void invalidateLayout() {
+        this.layoutDirty = true;
+    }
+    
+    /**
+     * Rebuilds the row layout if it was invalidated. This is called once per frame.
+     */
+    protected void updateLayout() {
+        this.layout();
+    }
+    
+    private int[] layout() {
+        if (this.layoutDirty) {
+            List<E> children = this.visibleChildren();
+            int[] offsets = this.rowOffsets.length == children.size() + 1 ? this.rowOffsets : new int[children.size() + 1];
+            int maxPosition = 0;
+            for (int i = 0; i < children.size(); i++) {
+                E item = children.get(i);
+                offsets[i + 1] = offsets[i] + item.getItemHeight();
+                int morePossibleHeight = item.getMorePossibleHeight();
+                if (morePossibleHeight >= 0) {
+                    maxPosition = Math.max(maxPosition, offsets[i + 1] + morePossibleHeight);
+                }
+            }
+            this.rowOffsets = offsets;
+            this.layoutMaxPosition = Math.max(maxPosition, offsets[children.size()]);
+            this.layoutDirty = false;
+        }
+        return this.rowOffsets;
+    }
+    
+    /**
+     * Finds the visible row covering the given offset from the top of the
+     * first row.
+     *
+     * @return the row index, or the visible item count if the offset is past the last row
+     */
+    protected int getRowAtOffset(int offset) {
+        int[] offsets = this.layout();
+        int low = 0;
+        int high = offsets.length - 2;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (offsets[mid + 1] <= offset) {
+                low = mid + 1;
+            } else if (offsets[mid] > offset) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return Math.max(low, 0);
     }
     
     public void setRenderSelection(boolean boolean_1) {
@@ -213,16 +290,8 @@ public abstract class DynamicEntryListWidget<E extends DynamicEntryListWidget.En
         }
         
         // Otherwise look for the selected item
-        E itemAtPosition = null;
-        int itemY = 0;
-        for (E item : visibleChildren()) {
-            itemY += item.getItemHeight();
-            if (itemY > currentY) {
-                itemAtPosition = item;
-                break;
-            }
-        }
-        return itemAtPosition;
+        int index = this.getRowAtOffset(currentY);
+        return index < this.getItemCount() ? this.getItem(index) : null;
     }
     
     public void updateSize(int width, int height, int top, int bottom) {
@@ -232,6 +301,8 @@ public abstract class DynamicEntryListWidget<E extends DynamicEntryListWidget.En
         this.bottom = bottom;
         this.left = 0;
         this.right = width;
+        // Wrapped text entries change their height with the width
+        this.invalidateLayout();
     }
     
     public void setLeftPos(int left) {
@@ -240,25 +311,25 @@ public abstract class DynamicEntryListWidget<E extends DynamicEntryListWidget.En
     }
     
     protected int getMaxScrollPosition() {
-        List<Integer> list = new ArrayList<>();
-        int i = headerHeight;
-        for (E entry : visibleChildren()) {
-            i += entry.getItemHeight();
-            if (entry.getMorePossibleHeight() >= 0) {
-                list.add(i + entry.getMorePossibleHeight());
-            }
-        }
-        list.add(i);
-        return list.stream().max(Integer::compare).orElse(0);
+        this.layout();
+        return headerHeight + this.layoutMaxPosition;
     }
     
     protected void clickedHeader(int int_1, int int_2) {
     }
     
     public void tickList() {
-        this.updateVisibleChildren();
+        this.requirementGraph.poll();
+        // The visible children only change when an entry is added, removed, shown or hidden
+        boolean displayChanged = this.visibleEntriesDirty;
         for (E child : this.children()) {
-           child.tick();
+            boolean displayed = child.isDisplayed();
+            child.tick();
+            displayChanged |= displayed != child.isDisplayed();
+        }
+        this.requirementGraph.removeUnused();
+        if (displayChanged) {
+            this.updateVisibleChildren();
         }
     }
     
@@ -271,18 +342,17 @@ public abstract class DynamicEntryListWidget<E extends DynamicEntryListWidget.En
     protected void renderDecorations(GuiGraphics graphics, int mouseX, int mouseY) {
     }
     
+    /**
+     * Draws nothing, the menu background of the screen shows through the list. Only sets up the
+     * shader state it always has.
+     *
+     * @param buffer a buffer of the tessellator that is never drawn, kept for subclasses
+     */
     @Deprecated
     protected void renderBackBackground(GuiGraphics graphics, BufferBuilder buffer, Tesselator tessellator) {
         RenderSystem.setShader(GameRenderer::getPositionTexColorShader);
         RenderSystem.setShaderTexture(0, backgroundLocation);
         RenderSystem.setShaderColor(1.0F, 1.0F, 1.0F, 1.0F);
-        Matrix4f matrix = graphics.pose().last().pose();
-        float float_2 = 32.0F;
-        tessellator.begin(VertexFormat.Mode.QUADS, DefaultVertexFormat.POSITION_TEX_COLOR);
-        buffer.addVertex(matrix, this.left, this.bottom, 0.0F).setUv(this.left / 32.0F, ((this.bottom + (int) this.getScroll()) / 32.0F)).setColor(32, 32, 32, 255);
-        buffer.addVertex(matrix, this.right, this.bottom, 0.0F).setUv(this.right / 32.0F, ((this.bottom + (int) this.getScroll()) / 32.0F)).setColor(32, 32, 32, 255);
-        buffer.addVertex(matrix, this.right, this.top, 0.0F).setUv(this.right / 32.0F, ((this.top + (int) this.getScroll()) / 32.0F)).setColor(32, 32, 32, 255);
-        buffer.addVertex(matrix, this.left, this.top, 0.0F).setUv(this.left / 32.0F, ((this.top + (int) this.getScroll()) / 32.0F)).setColor(32, 32, 32, 255);
     }
     
     @Override
@@ -292,11 +362,13 @@ public abstract class DynamicEntryListWidget<E extends DynamicEntryListWidget.En
             this.totalTicks = this.totalTicks % 1.0f;
             this.tickList();
         }
+        this.updateLayout();
         
         this.drawBackground();
         int scrollbarPosition = this.getScrollbarPosition();
         int int_4 = scrollbarPosition + 6;
         Tesselator tesselator = Tesselator.getInstance();
+        // Never drawn, as before batching, it only keeps the overloads that take it working for subclasses
         BufferBuilder buffer = tesselator.begin(VertexFormat.Mode.QUADS, DefaultVertexFormat.POSITION_TEX_COLOR);
         renderBackBackground(graphics, buffer, tesselator);
         int rowLeft = this.getRowLeft();
@@ -317,11 +389,17 @@ public abstract class DynamicEntryListWidget<E extends DynamicEntryListWidget.En
         
         int maxScroll = this.getMaxScroll();
         renderScrollBar(graphics, tesselator, buffer, maxScroll, scrollbarPosition, int_4);
+        QuadBatch.getInstance().flush(graphics);
         
         this.renderDecorations(graphics, mouseX, mouseY);
         RenderSystem.disableBlend();
     }
     
+    /**
+     * Adds the scrollbar to the {@link QuadBatch}, which is flushed right after.
+     *
+     * @param buffer a buffer of the tessellator that is never drawn, kept for subclasses
+     */
     protected void renderScrollBar(GuiGraphics graphics, Tesselator tessellator, BufferBuilder buffer, int maxScroll, int scrollbarPositionMinX, int scrollbarPositionMaxX) {
         if (maxScroll > 0) {
             int int_9 = ((this.bottom - this.top) * (this.bottom - this.top)) / this.getMaxScrollPosition();
@@ -331,22 +409,18 @@ public abstract class DynamicEntryListWidget<E extends DynamicEntryListWidget.En
                 int_10 = this.top;
             }
             
-            graphics.fill(scrollbarPositionMinX, this.top, scrollbarPositionMaxX, this.bottom, 0xff000000);
-            graphics.fill(scrollbarPositionMinX, int_10, scrollbarPositionMaxX, int_10 + int_9, 0xff808080);
-            graphics.fill(scrollbarPositionMinX, int_10, scrollbarPositionMaxX - 1, int_10 + int_9 - 1, 0xffc0c0c0);
+            QuadBatch batch = QuadBatch.getInstance();
+            batch.fill(graphics, scrollbarPositionMinX, this.top, scrollbarPositionMaxX, this.bottom, 0xff000000);
+            batch.fill(graphics, scrollbarPositionMinX, int_10, scrollbarPositionMaxX, int_10 + int_9, 0xff808080);
+            batch.fill(graphics, scrollbarPositionMinX, int_10, scrollbarPositionMaxX - 1, int_10 + int_9 - 1, 0xffc0c0c0);
         }
     }
     
     protected void centerScrollOn(E item) {
-        List<E> children = this.visibleChildren();
         double halfway = (this.bottom - this.top) / -2d;
-        int itemIndex = children.indexOf(item);
-        int i = 0;
-        for (E elm : children) {
-            if (i++ >= itemIndex) {
-                break;
-            }
-            halfway += elm.getItemHeight();
+        int itemIndex = this.visibleChildren().indexOf(item);
+        if (itemIndex > 0) {
+            halfway += this.layout()[itemIndex];
         }
         this.capYPosition(halfway);
     }
@@ -403,6 +477,7 @@ public abstract class DynamicEntryListWidget<E extends DynamicEntryListWidget.En
             E item = this.getItemAtPosition(double_1, double_2);
             if (item != null) {
                 if (item.mouseClicked(double_1, double_2, int_1)) {
+                    this.invalidateLayout();
                     this.setFocused(item);
                     this.setDragging(true);
                     return true;
@@ -422,6 +497,8 @@ public abstract class DynamicEntryListWidget<E extends DynamicEntryListWidget.En
     
     public void setFocused(@Nullable GuiEventListener guiEventListener) {
         super.setFocused(guiEventListener);
+        // Entries such as dropdowns only expand while focused
+        this.invalidateLayout();
         int i = this.entries.indexOf(guiEventListener);
         if (i >= 0) {
             E entry = this.entries.get(i);
@@ -502,8 +579,15 @@ public abstract class DynamicEntryListWidget<E extends DynamicEntryListWidget.En
     }
     
     public boolean mouseScrolled(double double_1, double double_2, double amountX, double amountY) {
-        for (E entry : visibleChildren()) {
+        // Only the rows inside the viewport are rendered, and can be scrolled
+        List<E> children = this.visibleChildren();
+        int[] offsets = this.layout();
+        int rowStart = this.top + 4 - (int) this.getScroll() + headerHeight;
+        for (int i = Math.min(this.getRowAtOffset(this.top - rowStart), children.size()); i < children.size() && rowStart + offsets[i] <= this.bottom; i++) {
+            E entry = children.get(i);
             if (entry.mouseScrolled(double_1, double_2, amountX, amountY)) {
+                this.invalidateLayout();
+                this.entryScrolled(entry);
                 return true;
             }
         }
@@ -511,8 +595,15 @@ public abstract class DynamicEntryListWidget<E extends DynamicEntryListWidget.En
         return amountY != 0;
     }
     
+    /**
+     * Called after an entry inside the viewport handled a scroll event.
+     */
+    protected void entryScrolled(E entry) {
+    }
+    
     public boolean keyPressed(int int_1, int int_2, int int_3) {
         if (super.keyPressed(int_1, int_2, int_3)) {
+            this.invalidateLayout();
             return true;
         } else if (int_1 == 264) {
             this.moveSelection(1);
@@ -542,15 +633,20 @@ public abstract class DynamicEntryListWidget<E extends DynamicEntryListWidget.En
     }
     
     protected void renderList(GuiGraphics graphics, int startX, int startY, int mouseX, int mouseY, float delta) {
-        Tesselator tesselator = Tesselator.getInstance();
-        BufferBuilder buffer = tesselator.begin(VertexFormat.Mode.QUADS, DefaultVertexFormat.POSITION_TEX_COLOR);
-        
         hoveredItem = this.isMouseOver(mouseX, mouseY) ? this.getItemAtPosition(mouseX, mouseY) : null;
         
-        int heights = 0; // itemHeight accumulator
-        int renderIndex = 0; // index is passed to render methods
-        for (E item : visibleChildren()) {
-            int itemY = startY + headerHeight + heights;
+        List<E> children = this.visibleChildren();
+        int[] offsets = this.layout();
+        int rowStart = startY + headerHeight;
+        // Only the rows intersecting the viewport are rendered
+        int itemCount = children.size();
+        int renderIndex = Math.min(this.getRowAtOffset(this.top - rowStart), itemCount);
+        for (; renderIndex < itemCount; renderIndex++) {
+            int itemY = rowStart + offsets[renderIndex];
+            if (itemY > this.bottom) {
+                break;
+            }
+            E item = children.get(renderIndex);
             int itemHeight = item.getItemHeight() - 4;
             int itemWidth = this.getItemWidth();
             boolean itemHovered = Objects.equals(this.hoveredItem, item);
@@ -558,18 +654,16 @@ public abstract class DynamicEntryListWidget<E extends DynamicEntryListWidget.En
             if (this.selectionVisible && Objects.equals(this.selectedItem, item)) {
                 int itemMinX = this.left + (this.width - itemWidth) / 2;
                 int itemMaxX = this.left + (this.width + itemWidth) / 2;
-                graphics.fill(itemMinX, itemY - 2, itemMaxX, itemY + itemHeight + 2, this.isFocused() ? 0xffffffff : 0xff808080);
-                graphics.fill(itemMinX + 1, itemY - 1, itemMaxX - 1, itemY + itemHeight + 1, 0xff000000);
+                QuadBatch batch = QuadBatch.getInstance();
+                batch.fill(graphics, itemMinX, itemY - 2, itemMaxX, itemY + itemHeight + 2, this.isFocused() ? 0xffffffff : 0xff808080);
+                batch.fill(graphics, itemMinX + 1, itemY - 1, itemMaxX - 1, itemY + itemHeight + 1, 0xff000000);
+                batch.flush(graphics);
             }
             
             // Finally, call render
             int y = this.getRowTop(renderIndex);
             int x = this.getRowLeft();
             renderItem(graphics, item, renderIndex, y, x, itemWidth, itemHeight, mouseX, mouseY, itemHovered, delta);
-            
-            // Update counter and accumulator
-            heights += item.getItemHeight();
-            renderIndex++;
         }
     }
     
@@ -583,14 +677,11 @@ public abstract class DynamicEntryListWidget<E extends DynamicEntryListWidget.En
     
     public int getRowTop(int index) {
         int top = this.top + 4 - (int) this.getScroll() + headerHeight;
-        int i = 0;
-        for (E item : visibleChildren()) {
-            if (index <= i++) {
-                break;
-            }
-            top += item.getItemHeight(); 
+        int[] offsets = this.layout();
+        if (index <= 0) {
+            return top;
         }
-        return top;
+        return top + offsets[Math.min(index, offsets.length - 1)];
     }
     
     @Override
@@ -598,17 +689,14 @@ public abstract class DynamicEntryListWidget<E extends DynamicEntryListWidget.En
         return false;
     }
     
+    /**
+     * Draws nothing, the header and footer show the menu background of the screen. Only sets up
+     * the shader state it always has.
+     */
     protected void renderHoleBackground(GuiGraphics graphics, int y1, int y2, int alpha1, int alpha2) {
-        Tesselator tesselator = Tesselator.getInstance();
-        BufferBuilder buffer = tesselator.begin(VertexFormat.Mode.QUADS, DefaultVertexFormat.POSITION_TEX_COLOR);
-        Matrix4f matrix = graphics.pose().last().pose();
         RenderSystem.setShader(GameRenderer::getPositionTexColorShader);
         RenderSystem.setShaderTexture(0, backgroundLocation);
         RenderSystem.setShaderColor(1.0F, 1.0F, 1.0F, 1.0F);
-        buffer.addVertex(matrix, this.left, y2, 0.0F).setUv(0, ((float) y2 / 32.0F)).setColor(64, 64, 64, alpha2);
-        buffer.addVertex(matrix, this.left + this.width, y2, 0.0F).setUv(((float) this.width / 32.0F), ((float) y2 / 32.0F)).setColor(64, 64, 64, alpha2);
-        buffer.addVertex(matrix, this.left + this.width, y1, 0.0F).setUv(((float) this.width / 32.0F), ((float) y1 / 32.0F)).setColor(64, 64, 64, alpha1);
-        buffer.addVertex(matrix, this.left, y1, 0.0F).setUv(0, ((float) y1 / 32.0F)).setColor(64, 64, 64, alpha1);
     }
     
     protected E remove(int index) {
@@ -642,6 +730,10 @@ public abstract class DynamicEntryListWidget<E extends DynamicEntryListWidget.En
         protected Requirement displayRequirement = null;
         protected boolean enabled = true;
         protected boolean displayed = true;
+        @Nullable
+        private RequirementGraph.Watch enableWatch;
+        @Nullable
+        private RequirementGraph.Watch displayWatch;
         
         public Entry() {
         }
@@ -660,6 +752,15 @@ public abstract class DynamicEntryListWidget<E extends DynamicEntryListWidget.En
             this.parent = parent;
         }
         
+        /**
+         * Notifies the list that the height of this entry changed, so the row layout is rebuilt.
+         */
+        public void invalidateHeight() {
+            if (parent != null) {
+                parent.invalidateLayout();
+            }
+        }
+        
         @Override
         public boolean isEnabled() {
             return isDisplayed() && enabled;
@@ -701,9 +802,29 @@ public abstract class DynamicEntryListWidget<E extends DynamicEntryListWidget.En
         
         @Override
         public void tick() {
-            // Check requirements
-            enabled = getRequirement() == null || getRequirement().check();
-            displayed = getDisplayRequirement() == null || getDisplayRequirement().check();
+            // Check requirements, which are only evaluated again once a value they depend on changed
+            RequirementGraph graph = parent == null ? null : parent.requirementGraph;
+            boolean wasEnabled = enabled, wasDisplayed = displayed;
+            Requirement enabledBy = getRequirement();
+            if (enabledBy == null) {
+                enabled = true;
+            } else {
+                if (enableWatch == null || !enableWatch.isWatching(graph, enabledBy))
+                    enableWatch = RequirementGraph.watch(graph, enabledBy);
+                enabled = enableWatch.check();
+            }
+            Requirement displayedBy = getDisplayRequirement();
+            if (displayedBy == null) {
+                displayed = true;
+            } else {
+                if (displayWatch == null || !displayWatch.isWatching(graph, displayedBy))
+                    displayWatch = RequirementGraph.watch(graph, displayedBy);
+                displayed = displayWatch.check();
+            }
+            if (enabled != wasEnabled || displayed != wasDisplayed) {
+                // Disabled entries collapse, hidden nested entries no longer take space in their parent
+                invalidateHeight();
+            }
         }
         
         void updateNarration(NarrationElementOutput narrationElementOutput) {
@@ -738,6 +859,9 @@ public abstract class DynamicEntryListWidget<E extends DynamicEntryListWidget.En
         @Override
         public void clear() {
             items.clear();
+            requirementGraph.requestRemoval();
+            visibleEntriesDirty = true;
+            invalidateLayout();
         }
         
         @Override
@@ -754,6 +878,9 @@ public abstract class DynamicEntryListWidget<E extends DynamicEntryListWidget.En
         public E set(int int_1, E itemListWidget$Item_1) {
             E itemListWidget$Item_2 = this.items.set(int_1, itemListWidget$Item_1);
             itemListWidget$Item_1.parent = DynamicEntryListWidget.this;
+            requirementGraph.requestRemoval();
+            visibleEntriesDirty = true;
+            invalidateLayout();
             return itemListWidget$Item_2;
         }
         
@@ -761,10 +888,15 @@ public abstract class DynamicEntryListWidget<E extends DynamicEntryListWidget.En
         public void add(int int_1, E itemListWidget$Item_1) {
             this.items.add(int_1, itemListWidget$Item_1);
             itemListWidget$Item_1.parent = DynamicEntryListWidget.this;
+            visibleEntriesDirty = true;
+            invalidateLayout();
         }
         
         @Override
         public E remove(int int_1) {
+            requirementGraph.requestRemoval();
+            visibleEntriesDirty = true;
+            invalidateLayout();
             return this.items.remove(int_1);
         }
     }
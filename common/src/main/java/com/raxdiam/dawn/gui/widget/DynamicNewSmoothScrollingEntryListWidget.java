@@ -22,6 +22,7 @@ package com.raxdiam.dawn.gui.widget;
 import com.mojang.blaze3d.vertex.BufferBuilder;
 import com.mojang.blaze3d.vertex.Tesselator;
 import com.raxdiam.dawn.DawnConfigInitializer;
+import com.raxdiam.dawn.impl.QuadBatch;
 import com.raxdiam.dawn.math.Rectangle;
 import com.raxdiam.dawn.math.impl.PointHelper;
 import net.fabricmc.api.EnvType;
@@ -146,10 +147,11 @@ public abstract class DynamicNewSmoothScrollingEntryListWidget<E extends Dynamic
             int bottomc = new Rectangle(scrollbarPositionMinX, minY, scrollbarPositionMaxX - scrollbarPositionMinX, height).contains(PointHelper.ofMouse()) ? 168 : 128;
             int topc = new Rectangle(scrollbarPositionMinX, minY, scrollbarPositionMaxX - scrollbarPositionMinX, height).contains(PointHelper.ofMouse()) ? 222 : 172;
             
-            graphics.fill(scrollbarPositionMinX, this.top, scrollbarPositionMaxX, this.bottom, 0xff000000);
-            graphics.fill(scrollbarPositionMinX, minY, scrollbarPositionMaxX, minY + height,
+            QuadBatch batch = QuadBatch.getInstance();
+            batch.fill(graphics, scrollbarPositionMinX, this.top, scrollbarPositionMaxX, this.bottom, 0xff000000);
+            batch.fill(graphics, scrollbarPositionMinX, minY, scrollbarPositionMaxX, minY + height,
                     FastColor.ARGB32.color(255, bottomc, bottomc, bottomc));
-            graphics.fill(scrollbarPositionMinX, minY, scrollbarPositionMaxX - 1, minY + height - 1,
+            batch.fill(graphics, scrollbarPositionMinX, minY, scrollbarPositionMaxX - 1, minY + height - 1,
                     FastColor.ARGB32.color(255, topc, topc, topc));
         }
     }
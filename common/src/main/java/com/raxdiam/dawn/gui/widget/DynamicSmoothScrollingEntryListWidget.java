@@ -24,6 +24,7 @@ import com.mojang.blaze3d.vertex.Tesselator;
 import com.raxdiam.dawn.DawnConfigInitializer;
 import com.raxdiam.dawn.api.animator.NumberAnimator;
 import com.raxdiam.dawn.api.animator.ValueAnimator;
+import com.raxdiam.dawn.impl.QuadBatch;
 import com.raxdiam.dawn.math.Rectangle;
 import com.raxdiam.dawn.math.impl.PointHelper;
 import net.fabricmc.api.EnvType;
@@ -143,10 +144,11 @@ public abstract class DynamicSmoothScrollingEntryListWidget<E extends DynamicEnt
             int bottomc = new Rectangle(scrollbarPositionMinX, minY, scrollbarPositionMaxX - scrollbarPositionMinX, height).contains(PointHelper.ofMouse()) ? 168 : 128;
             int topc = new Rectangle(scrollbarPositionMinX, minY, scrollbarPositionMaxX - scrollbarPositionMinX, height).contains(PointHelper.ofMouse()) ? 222 : 172;
             
-            graphics.fill(scrollbarPositionMinX, this.top, scrollbarPositionMaxX, this.bottom, 0xff000000);
-            graphics.fill(scrollbarPositionMinX, minY, scrollbarPositionMaxX, minY + height,
+            QuadBatch batch = QuadBatch.getInstance();
+            batch.fill(graphics, scrollbarPositionMinX, this.top, scrollbarPositionMaxX, this.bottom, 0xff000000);
+            batch.fill(graphics, scrollbarPositionMinX, minY, scrollbarPositionMaxX, minY + height,
                     FastColor.ARGB32.color(255, bottomc, bottomc, bottomc));
-            graphics.fill(scrollbarPositionMinX, minY, scrollbarPositionMaxX - 1, minY + height - 1,
+            batch.fill(graphics, scrollbarPositionMinX, minY, scrollbarPositionMaxX - 1, minY + height - 1,
                     FastColor.ARGB32.color(255, topc, topc, topc));
         }
     }
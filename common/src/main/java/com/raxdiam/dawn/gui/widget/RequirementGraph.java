@@ -0,0 +1,186 @@
+/*
+ * This file is part of Dawn Config (formerly 'Cloth Config').
+ * Copyright (C) 2020 - 2021 shedaniel
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.raxdiam.dawn.gui.widget;
+
+import com.raxdiam.dawn.api.Requirement;
+import com.raxdiam.dawn.api.ValueHolder;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Tracks the values of the {@link ValueHolder}s the requirements of a list depend on, so a requirement
+ * is only checked again after one of its dependencies changed value. Each value is read once per
+ * {@link #poll()}, no matter how many requirements depend on it.
+ * <p>
+ * Once entries leave the list, the values only their requirements depended on are dropped after the
+ * next tick, see {@link #removeUnused()}.
+ */
+@Environment(EnvType.CLIENT)
+final class RequirementGraph {
+    private final Map<ValueHolder<?>, Node> nodes = new IdentityHashMap<>();
+    private final List<Node> nodeList = new ArrayList<>();
+    private long generation;
+    private boolean removalRequested;
+    
+    /**
+     * Reads every tracked value, recording which of them changed since the last poll.
+     */
+    void poll() {
+        generation++;
+        for (Node node : nodeList) {
+            node.poll(generation);
+        }
+    }
+    
+    /**
+     * Requests dropping the values no requirement checked during the next tick, as entries left the list.
+     */
+    void requestRemoval() {
+        removalRequested = true;
+    }
+    
+    /**
+     * Drops the values not used by any requirement checked since the last {@link #poll()}, if
+     * {@link #requestRemoval() requested}. Watches still using a dropped value start over on their next check.
+     */
+    void removeUnused() {
+        if (!removalRequested) return;
+        removalRequested = false;
+        nodeList.removeIf(node -> {
+            if (node.usedAt == generation) return false;
+            node.removed = true;
+            nodes.remove(node.holder);
+            return true;
+        });
+    }
+    
+    /**
+     * Creates a cached check of the requirement, which is checked on every call if there is no graph
+     * or its dependencies are unknown.
+     */
+    static Watch watch(@Nullable RequirementGraph graph, Requirement requirement) {
+        Collection<ValueHolder<?>> dependencies = graph == null ? null : requirement.getDependencies();
+        if (dependencies == null) {
+            return new Watch(graph, requirement, null);
+        }
+        Node[] nodes = new Node[dependencies.size()];
+        int i = 0;
+        for (ValueHolder<?> dependency : dependencies) {
+            nodes[i++] = graph.node(dependency);
+        }
+        return new Watch(graph, requirement, nodes);
+    }
+    
+    private Node node(ValueHolder<?> holder) {
+        Node node = nodes.get(holder);
+        if (node == null) {
+            node = new Node(holder, generation);
+            nodes.put(holder, node);
+            nodeList.add(node);
+        }
+        return node;
+    }
+    
+    private static final class Node {
+        private final ValueHolder<?> holder;
+        private Object value;
+        private long changedAt;
+        private long usedAt;
+        private boolean removed;
+        
+        private Node(ValueHolder<?> holder, long generation) {
+            this.holder = holder;
+            this.value = holder.getValue();
+            this.changedAt = generation;
+            this.usedAt = generation;
+        }
+        
+        private void poll(long generation) {
+            Object value = holder.getValue();
+            if (isChanged(this.value, value)) {
+                this.value = value;
+                this.changedAt = generation;
+            }
+        }
+        
+        private static boolean isChanged(@Nullable Object previous, @Nullable Object current) {
+            if (previous == current) {
+                // The same mutable instance may have been modified in place
+                return current != null && !isValueType(current);
+            }
+            return !Objects.equals(previous, current);
+        }
+        
+        private static boolean isValueType(Object value) {
+            return value instanceof String || value instanceof Boolean || value instanceof Enum<?> || value instanceof Character
+                   || value instanceof Integer || value instanceof Long || value instanceof Float || value instanceof Double
+                   || value instanceof Short || value instanceof Byte;
+        }
+    }
+    
+    static final class Watch {
+        @Nullable
+        private final RequirementGraph graph;
+        private final Requirement requirement;
+        @Nullable
+        private final Node[] dependencies;
+        private long checkedAt = -1;
+        private boolean result;
+        
+        private Watch(@Nullable RequirementGraph graph, Requirement requirement, @Nullable Node[] dependencies) {
+            this.graph = graph;
+            this.requirement = requirement;
+            this.dependencies = dependencies;
+        }
+        
+        boolean isWatching(@Nullable RequirementGraph graph, Requirement requirement) {
+            if (this.graph != graph || this.requirement != requirement) return false;
+            if (dependencies != null) {
+                for (Node dependency : dependencies) {
+                    if (dependency.removed) return false;
+                }
+            }
+            return true;
+        }
+        
+        boolean check() {
+            if (dependencies == null || isChanged() || checkedAt < 0) {
+                result = requirement.check();
+                checkedAt = graph == null ? 0 : graph.generation;
+            }
+            return result;
+        }
+        
+        /**
+         * Also marks the dependencies as used, so they are kept by {@link #removeUnused()}.
+         */
+        private boolean isChanged() {
+            boolean changed = false;
+            for (Node dependency : dependencies) {
+                dependency.usedAt = graph.generation;
+                changed |= dependency.changedAt > checkedAt;
+            }
+            return changed;
+        }
+    }
+}
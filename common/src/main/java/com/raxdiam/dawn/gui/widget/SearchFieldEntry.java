@@ -19,7 +19,6 @@
 
 package com.raxdiam.dawn.gui.widget;
 
-import com.google.common.collect.Iterators;
 import com.raxdiam.dawn.api.AbstractConfigEntry;
 import com.raxdiam.dawn.api.AbstractConfigListEntry;
 import com.raxdiam.dawn.api.ConfigScreen;
@@ -31,72 +30,61 @@ import net.minecraft.client.gui.components.events.GuiEventListener;
 import net.minecraft.client.gui.narration.NarratableEntry;
 import net.minecraft.network.chat.Component;
 import net.minecraft.util.Mth;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 
 public class SearchFieldEntry extends AbstractConfigListEntry<Object> {
+    private final ConfigScreen screen;
     private final EditBox editBox;
     private String[] lowerCases;
+    private SearchResultList resultList;
+    @Nullable
+    private SearchIndex searchIndex;
     
     public SearchFieldEntry(ConfigScreen screen, DawnConfigScreen.ListWidget<AbstractConfigEntry<AbstractConfigEntry<?>>> listWidget) {
+        this(screen, listWidget, null);
+    }
+    
+    public SearchFieldEntry(ConfigScreen screen, DawnConfigScreen.ListWidget<AbstractConfigEntry<AbstractConfigEntry<?>>> listWidget, @Nullable SearchIndex searchIndex) {
         super(Component.empty(), false);
+        this.searchIndex = searchIndex;
+        this.screen = screen;
         this.editBox = new EditBox(Minecraft.getInstance().font, 0, 0, 100, 18, Component.empty());
         this.lowerCases = editBox.getValue().isEmpty() ? new String[0] : editBox.getValue().toLowerCase(Locale.ROOT).split(" ");
         this.editBox.setResponder(s -> {
             lowerCases = s.isEmpty() ? new String[0] : s.toLowerCase(Locale.ROOT).split(" ");
+            if (resultList != null) {
+                resultList.update(s);
+            }
+            // Sub categories only count the nested entries matching the query
+            invalidateHeight();
         });
         listWidget.entriesTransformer = entries -> {
-            return new AbstractList<AbstractConfigEntry<AbstractConfigEntry<?>>>() {
-                @Override
-                public Iterator<AbstractConfigEntry<AbstractConfigEntry<?>>> iterator() {
-                    if (editBox.getValue().isEmpty())
-                        return entries.iterator();
-                    return Iterators.filter(entries.iterator(), entry -> {
-                        return entry.isDisplayed() && screen.matchesSearch(entry.getSearchTags());
-                    });
-                }
-                
-                @Override
-                public AbstractConfigEntry<AbstractConfigEntry<?>> get(int index) {
-                    return Iterators.get(iterator(), index);
-                }
-                
-                @Override
-                public void add(int index, AbstractConfigEntry<AbstractConfigEntry<?>> element) {
-                    entries.add(index, element);
-                }
-                
-                @Override
-                public AbstractConfigEntry<AbstractConfigEntry<?>> remove(int index) {
-                    AbstractConfigEntry<AbstractConfigEntry<?>> entry = get(index);
-                    return entries.remove(entry) ? entry : null;
-                }
-                
-                @Override
-                public boolean remove(Object o) {
-                    return entries.remove(o);
-                }
-                
-                @Override
-                public void clear() {
-                    entries.clear();
-                }
-                
-                @Override
-                public int size() {
-                    return Iterators.size(iterator());
-                }
-            };
+            if (resultList == null || resultList.entries != entries) {
+                resultList = new SearchResultList(entries);
+            }
+            return resultList;
         };
     }
     
+    public boolean matchesSearch(AbstractConfigEntry<?> entry) {
+        if (lowerCases.length == 0) return true;
+        if (searchIndex != null && searchIndex.contains(entry)) {
+            return searchIndex.matches(entry, lowerCases);
+        }
+        return matchesSearch(entry.getSearchTags());
+    }
+    
     public boolean matchesSearch(Iterator<String> tags) {
         if (lowerCases.length == 0) return true;
         if (!tags.hasNext()) return true;
+        List<String> lowerTags = new ArrayList<>();
+        tags.forEachRemaining(tag -> lowerTags.add(tag.toLowerCase(Locale.ROOT)));
         for (String lowerCase : lowerCases) {
             boolean found = false;
-            for (String tag : (Iterable<? extends String>) (() -> tags)) {
-                if (tag.toLowerCase(Locale.ROOT).contains(lowerCase)) {
+            for (String tag : lowerTags) {
+                if (tag.contains(lowerCase)) {
                     found = true;
                     break;
                 }
@@ -139,4 +127,112 @@ public class SearchFieldEntry extends AbstractConfigListEntry<Object> {
     public List<? extends GuiEventListener> children() {
         return Collections.singletonList(editBox);
     }
+    
+    /**
+     * The entries matching the current query, materialized once per query change
+     * instead of being filtered on every access.
+     */
+    private class SearchResultList extends AbstractList<AbstractConfigEntry<AbstractConfigEntry<?>>> implements RandomAccess {
+        private final List<AbstractConfigEntry<AbstractConfigEntry<?>>> entries;
+        private final ArrayList<AbstractConfigEntry<AbstractConfigEntry<?>>> results = new ArrayList<>();
+        /**
+         * Maps each result index to the index of the entry in {@link #entries}.
+         */
+        private int[] sourceIndices = new int[0];
+        private String query = "";
+        private boolean dirty = true;
+        
+        private SearchResultList(List<AbstractConfigEntry<AbstractConfigEntry<?>>> entries) {
+            this.entries = entries;
+        }
+        
+        private boolean isFiltering() {
+            return !editBox.getValue().isEmpty();
+        }
+        
+        private void update(String newQuery) {
+            if (newQuery.isEmpty()) {
+                results.clear();
+                query = newQuery;
+                dirty = false;
+            } else if (!dirty && !query.isEmpty() && newQuery.startsWith(query)) {
+                // Every term of an extended query is at least as specific, so only the previous results can match
+                int size = 0;
+                for (int i = 0; i < results.size(); i++) {
+                    AbstractConfigEntry<AbstractConfigEntry<?>> entry = results.get(i);
+                    if (screen.matchesSearch(entry)) {
+                        results.set(size, entry);
+                        sourceIndices[size++] = sourceIndices[i];
+                    }
+                }
+                results.subList(size, results.size()).clear();
+                query = newQuery;
+            } else {
+                results.clear();
+                if (sourceIndices.length < entries.size()) {
+                    sourceIndices = new int[entries.size()];
+                }
+                for (int i = 0; i < entries.size(); i++) {
+                    AbstractConfigEntry<AbstractConfigEntry<?>> entry = entries.get(i);
+                    if (screen.matchesSearch(entry)) {
+                        sourceIndices[results.size()] = i;
+                        results.add(entry);
+                    }
+                }
+                query = newQuery;
+                dirty = false;
+            }
+        }
+        
+        private List<AbstractConfigEntry<AbstractConfigEntry<?>>> current() {
+            if (!isFiltering()) {
+                return entries;
+            }
+            if (dirty || !query.equals(editBox.getValue())) {
+                dirty = true;
+                update(editBox.getValue());
+            }
+            return results;
+        }
+        
+        @Override
+        public AbstractConfigEntry<AbstractConfigEntry<?>> get(int index) {
+            return current().get(index);
+        }
+        
+        @Override
+        public int size() {
+            return current().size();
+        }
+        
+        @Override
+        public void add(int index, AbstractConfigEntry<AbstractConfigEntry<?>> element) {
+            entries.add(index, element);
+            dirty = true;
+        }
+        
+        @Override
+        public AbstractConfigEntry<AbstractConfigEntry<?>> remove(int index) {
+            if (!isFiltering()) {
+                dirty = true;
+                return entries.remove(index);
+            }
+            current();
+            AbstractConfigEntry<AbstractConfigEntry<?>> entry = entries.remove(sourceIndices[index]);
+            dirty = true;
+            return entry;
+        }
+        
+        @Override
+        public boolean remove(Object o) {
+            dirty = true;
+            return entries.remove(o);
+        }
+        
+        @Override
+        public void clear() {
+            entries.clear();
+            dirty = true;
+        }
+    }
 }
@@ -0,0 +1,229 @@
+/*
+ * This file is part of Dawn Config (formerly 'Cloth Config').
+ * Copyright (C) 2020 - 2021 shedaniel
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.raxdiam.dawn.gui.widget;
+
+import com.raxdiam.dawn.api.AbstractConfigEntry;
+import com.raxdiam.dawn.api.ReferenceProvider;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+
+import java.util.*;
+
+/**
+ * An inverted index over the search tags of the entries of a config screen.
+ * <p>
+ * Tags are lowercased once when the index is built, and every 1 to 3 character
+ * gram of a tag is mapped to the ids of the entries containing it. A query term
+ * resolves by intersecting the postings of its grams, longer terms are then
+ * verified against the candidate tags.
+ * <p>
+ * Entries added after the index was built, such as new list cells, are indexed
+ * with their nested entries the first time they are looked up. Their ids follow
+ * every id given so far, so their postings are appended. Once more entries were
+ * added than the last build indexed, the index is rebuilt from the screen's
+ * entries, dropping the ones that were removed since.
+ */
+@Environment(EnvType.CLIENT)
+public class SearchIndex {
+    private static final int GRAM_LENGTH = 3;
+    private final Iterable<? extends Collection<? extends AbstractConfigEntry<?>>> categories;
+    private static final int MIN_REBUILD_SIZE = 64;
+    private final Map<AbstractConfigEntry<?>, Integer> ids = new IdentityHashMap<>();
+    private final List<String[]> entryTags = new ArrayList<>();
+    private final Map<String, IntArrayList> postings = new HashMap<>();
+    private final BitSet untagged = new BitSet();
+    /**
+     * The number of entries indexed by the last build.
+     */
+    private int builtSize;
+    private String[] lastQuery;
+    private BitSet lastResult;
+    
+    private SearchIndex(Iterable<? extends Collection<? extends AbstractConfigEntry<?>>> categories) {
+        this.categories = categories;
+    }
+    
+    /**
+     * Builds an index over the given entries and all of their nested entries.
+     *
+     * @param categories the entries of the screen, kept to rebuild the index when entries are added
+     */
+    public static SearchIndex build(Iterable<? extends Collection<? extends AbstractConfigEntry<?>>> categories) {
+        SearchIndex index = new SearchIndex(categories);
+        index.rebuild();
+        return index;
+    }
+    
+    private void rebuild() {
+        ids.clear();
+        entryTags.clear();
+        postings.clear();
+        untagged.clear();
+        lastQuery = null;
+        lastResult = null;
+        for (Collection<? extends AbstractConfigEntry<?>> entries : categories) {
+            for (AbstractConfigEntry<?> entry : entries) {
+                index(entry);
+            }
+        }
+        for (IntArrayList posting : postings.values()) {
+            posting.trim();
+        }
+        builtSize = entryTags.size();
+    }
+    
+    private void index(AbstractConfigEntry<?> entry) {
+        if (ids.containsKey(entry)) return;
+        int id = entryTags.size();
+        ids.put(entry, id);
+        Set<String> tags = new LinkedHashSet<>();
+        entry.getSearchTags().forEachRemaining(tag -> tags.add(tag.toLowerCase(Locale.ROOT)));
+        entryTags.add(tags.toArray(new String[0]));
+        if (tags.isEmpty()) {
+            untagged.set(id);
+        }
+        for (String tag : tags) {
+            for (int length = 1; length <= GRAM_LENGTH; length++) {
+                for (int i = 0; i + length <= tag.length(); i++) {
+                    IntArrayList posting = postings.computeIfAbsent(tag.substring(i, i + length), s -> new IntArrayList());
+                    // Ids are assigned in increasing order, so each posting stays sorted
+                    if (posting.isEmpty() || posting.getInt(posting.size() - 1) != id) {
+                        posting.add(id);
+                    }
+                }
+            }
+        }
+        List<ReferenceProvider<?>> nestedEntries = entry.getReferenceProviderEntries();
+        if (nestedEntries != null) {
+            for (ReferenceProvider<?> nestedEntry : nestedEntries) {
+                index(nestedEntry.provideReferenceEntry());
+            }
+        }
+    }
+    
+    /**
+     * Checks whether the entry is indexed, indexing it and its nested entries if it isn't yet.
+     */
+    public boolean contains(AbstractConfigEntry<?> entry) {
+        if (ids.containsKey(entry)) return true;
+        if (entryTags.size() >= 2 * Math.max(builtSize, MIN_REBUILD_SIZE)) {
+            // Amortizes the rebuild over the entries added since the last one
+            rebuild();
+            if (ids.containsKey(entry)) return true;
+        }
+        index(entry);
+        lastQuery = null;
+        lastResult = null;
+        return true;
+    }
+    
+    /**
+     * Checks whether an indexed entry matches every term of the query.
+     *
+     * @param entry      the entry, must be {@link #contains(AbstractConfigEntry) contained} in this index
+     * @param lowerCases the lowercased query terms
+     * @return whether the entry matches
+     */
+    public boolean matches(AbstractConfigEntry<?> entry, String[] lowerCases) {
+        Integer id = ids.get(entry);
+        if (id == null) {
+            throw new IllegalArgumentException("Entry is not indexed: " + entry);
+        }
+        BitSet result = search(lowerCases);
+        return result == null || result.get(id);
+    }
+    
+    private BitSet search(String[] lowerCases) {
+        if (lastQuery != null && Arrays.equals(lastQuery, lowerCases)) {
+            return lastResult;
+        }
+        BitSet result = null;
+        for (String lowerCase : lowerCases) {
+            if (lowerCase.isEmpty()) continue;
+            BitSet matches = searchTerm(lowerCase);
+            if (result == null) {
+                result = matches;
+            } else {
+                result.and(matches);
+            }
+        }
+        if (result != null) {
+            result.or(untagged);
+        }
+        lastQuery = lowerCases.clone();
+        lastResult = result;
+        return result;
+    }
+    
+    private BitSet searchTerm(String term) {
+        BitSet matches = new BitSet(entryTags.size());
+        if (term.length() <= GRAM_LENGTH) {
+            // The gram postings are exact for short terms
+            IntArrayList posting = postings.get(term);
+            if (posting != null) {
+                for (int i = 0; i < posting.size(); i++) {
+                    matches.set(posting.getInt(i));
+                }
+            }
+            return matches;
+        }
+        IntArrayList[] termPostings = new IntArrayList[term.length() - GRAM_LENGTH + 1];
+        for (int i = 0; i < termPostings.length; i++) {
+            IntArrayList posting = postings.get(term.substring(i, i + GRAM_LENGTH));
+            if (posting == null) {
+                return matches;
+            }
+            termPostings[i] = posting;
+        }
+        Arrays.sort(termPostings, Comparator.comparingInt(IntArrayList::size));
+        int[] candidates = termPostings[0].toIntArray();
+        for (int i = 1; i < termPostings.length && candidates.length > 0; i++) {
+            candidates = intersect(candidates, termPostings[i]);
+        }
+        for (int id : candidates) {
+            for (String tag : entryTags.get(id)) {
+                if (tag.contains(term)) {
+                    matches.set(id);
+                    break;
+                }
+            }
+        }
+        return matches;
+    }
+    
+    private static int[] intersect(int[] a, IntArrayList b) {
+        int[] result = new int[Math.min(a.length, b.size())];
+        int size = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.size(); ) {
+            int id = b.getInt(j);
+            if (a[i] < id) {
+                i++;
+            } else if (a[i] > id) {
+                j++;
+            } else {
+                result[size++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * This file is part of Dawn Config (formerly 'Cloth Config').
+ * Copyright (C) 2020 - 2021 shedaniel
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.raxdiam.dawn.impl;
+
+import com.raxdiam.dawn.api.Requirement;
+import com.raxdiam.dawn.api.ValueHolder;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * A {@link Requirement} that knows the {@link ValueHolder}s it reads, created by the factories in {@link Requirement}.
+ */
+@ApiStatus.Internal
+public final class DependentRequirement implements Requirement {
+    private final Requirement requirement;
+    private final Collection<ValueHolder<?>> dependencies;
+    
+    private DependentRequirement(Requirement requirement, Collection<ValueHolder<?>> dependencies) {
+        this.requirement = requirement;
+        this.dependencies = dependencies;
+    }
+    
+    /**
+     * Attaches the value holders a requirement reads to it.
+     */
+    public static Requirement of(Requirement requirement, ValueHolder<?>... dependencies) {
+        return new DependentRequirement(requirement, List.of(dependencies));
+    }
+    
+    /**
+     * Attaches the dependencies of the requirements a combined requirement checks to it. If any of them
+     * has unknown dependencies, so does the combined requirement.
+     */
+    public static Requirement combine(Requirement requirement, Requirement... parts) {
+        Set<ValueHolder<?>> dependencies = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Requirement part : parts) {
+            Collection<ValueHolder<?>> partDependencies = part.getDependencies();
+            if (partDependencies == null) {
+                return requirement;
+            }
+            dependencies.addAll(partDependencies);
+        }
+        return new DependentRequirement(requirement, List.copyOf(dependencies));
+    }
+    
+    @Override
+    public boolean check() {
+        return requirement.check();
+    }
+    
+    @Override
+    @Nullable
+    public Collection<ValueHolder<?>> getDependencies() {
+        return dependencies;
+    }
+}
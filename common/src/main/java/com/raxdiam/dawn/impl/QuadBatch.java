@@ -0,0 +1,140 @@
+/*
+ * This file is part of Dawn Config (formerly 'Cloth Config').
+ * Copyright (C) 2020 - 2021 shedaniel
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+
+package com.raxdiam.dawn.impl;
+
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.vertex.*;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.client.gui.GuiGraphics;
+import net.minecraft.client.renderer.GameRenderer;
+import net.minecraft.resources.ResourceLocation;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Matrix4f;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the 2D quads of the config screens and draws them with one draw call per render state.
+ * <p>
+ * Solid quads share one buffer, textured quads get one buffer per texture. Buffers are drawn in
+ * the order their state was first used since the last flush, so only quads whose order across
+ * states does not matter should be batched together. The batch has to be flushed before anything
+ * that should appear on top of its quads is drawn.
+ */
+@Environment(EnvType.CLIENT)
+@ApiStatus.Internal
+public final class QuadBatch {
+    private static final QuadBatch INSTANCE = new QuadBatch();
+    private final Batch solid = new Batch(null, DefaultVertexFormat.POSITION_COLOR);
+    private final Map<ResourceLocation, Batch> textured = new HashMap<>();
+    private final List<Batch> pending = new ArrayList<>();
+    
+    private QuadBatch() {
+    }
+    
+    public static QuadBatch getInstance() {
+        RenderSystem.assertOnRenderThread();
+        return INSTANCE;
+    }
+    
+    /**
+     * Returns the buffer for quads with a position and a color.
+     */
+    public VertexConsumer solid() {
+        return solid.begin();
+    }
+    
+    /**
+     * Returns the buffer for quads with a position, texture coordinates and a color.
+     */
+    public VertexConsumer textured(ResourceLocation texture) {
+        return textured.computeIfAbsent(texture, location -> new Batch(location, DefaultVertexFormat.POSITION_TEX_COLOR)).begin();
+    }
+    
+    /**
+     * Adds a solid rectangle, the batched equivalent of {@link GuiGraphics#fill(int, int, int, int, int)}.
+     */
+    public void fill(GuiGraphics graphics, int minX, int minY, int maxX, int maxY, int color) {
+        Matrix4f matrix = graphics.pose().last().pose();
+        VertexConsumer buffer = solid();
+        buffer.addVertex(matrix, minX, minY, 0.0F).setColor(color);
+        buffer.addVertex(matrix, minX, maxY, 0.0F).setColor(color);
+        buffer.addVertex(matrix, maxX, maxY, 0.0F).setColor(color);
+        buffer.addVertex(matrix, maxX, minY, 0.0F).setColor(color);
+    }
+    
+    /**
+     * Draws every quad added since the last flush, in the state {@link GuiGraphics#fill(int, int, int, int, int)} draws
+     * in: after what is still pending in the buffer source of the graphics, and without depth testing.
+     */
+    public void flush(GuiGraphics graphics) {
+        if (pending.isEmpty()) return;
+        graphics.flush();
+        RenderSystem.disableDepthTest();
+        RenderSystem.enableBlend();
+        RenderSystem.defaultBlendFunc();
+        RenderSystem.setShaderColor(1.0F, 1.0F, 1.0F, 1.0F);
+        for (Batch batch : pending) {
+            batch.draw();
+        }
+        pending.clear();
+        RenderSystem.disableBlend();
+        RenderSystem.enableDepthTest();
+    }
+    
+    private final class Batch {
+        @Nullable private final ResourceLocation texture;
+        private final VertexFormat format;
+        private final ByteBufferBuilder bytes = new ByteBufferBuilder(256);
+        @Nullable private BufferBuilder builder;
+        
+        private Batch(@Nullable ResourceLocation texture, VertexFormat format) {
+            this.texture = texture;
+            this.format = format;
+        }
+        
+        private BufferBuilder begin() {
+            if (builder == null) {
+                builder = new BufferBuilder(bytes, VertexFormat.Mode.QUADS, format);
+                pending.add(this);
+            }
+            return builder;
+        }
+        
+        private void draw() {
+            MeshData mesh = builder.build();
+            builder = null;
+            if (mesh == null) return;
+            if (texture == null) {
+                RenderSystem.setShader(GameRenderer::getPositionColorShader);
+            } else {
+                RenderSystem.setShader(GameRenderer::getPositionTexColorShader);
+                RenderSystem.setShaderTexture(0, texture);
+            }
+            BufferUploader.drawWithShader(mesh);
+        }
+    }
+}
@@ -53,6 +53,7 @@ public class DropdownMenuBuilder<T> extends FieldBuilder<T, DropdownBoxEntry<T>,
     protected Consumer<T> saveConsumer = null;
     protected Iterable<T> selections = Collections.emptyList();
     protected boolean suggestionMode = true;
+    protected boolean asyncSearch = false;
     
     public DropdownMenuBuilder(Component resetButtonKey, Component fieldNameKey, SelectionTopCellElement<T> topCellElement, SelectionCellCreator<T> cellCreator) {
         super(resetButtonKey, fieldNameKey);
@@ -119,6 +120,15 @@ public class DropdownMenuBuilder<T> extends FieldBuilder<T, DropdownBoxEntry<T>,
         return suggestionMode;
     }
     
+    public DropdownMenuBuilder<T> setAsyncSearch(boolean asyncSearch) {
+        this.asyncSearch = asyncSearch;
+        return this;
+    }
+    
+    public boolean isAsyncSearch() {
+        return asyncSearch;
+    }
+    
     @NotNull
     @Override
     public DropdownBoxEntry<T> build() {
@@ -127,6 +137,7 @@ public class DropdownMenuBuilder<T> extends FieldBuilder<T, DropdownBoxEntry<T>,
         if (errorSupplier != null)
             entry.setErrorSupplier(() -> errorSupplier.apply(entry.getValue()));
         entry.setSuggestionMode(suggestionMode);
+        entry.setAsyncSearch(asyncSearch);
         return finishBuilding(entry);
     }
     
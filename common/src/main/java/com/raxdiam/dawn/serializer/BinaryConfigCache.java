@@ -0,0 +1,365 @@
+/*
+ * This file is part of Dawn Config (formerly 'Cloth Config').
+ * Copyright (C) 2020 - 2021 shedaniel
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.raxdiam.dawn.serializer;
+
+import com.raxdiam.dawn.util.FieldAccessor;
+import com.raxdiam.dawn.util.Utils;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.lang.reflect.*;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.zip.CRC32C;
+
+/**
+ * A binary sidecar of a config file, holding the object state the file deserialized to.
+ * <p>
+ * The cache stores the size, modification time and checksum of the file it was made
+ * from, and a hash of the config class structure. It is only used while all of them
+ * still match, otherwise the caller falls back to parsing the file. Fields are encoded
+ * in declaration order without names, which requires every field type to be one of the
+ * primitives, strings, enums, arrays, lists, sets, maps or plain objects made of these.
+ * Classes using anything else are not cached.
+ */
+final class BinaryConfigCache<T> {
+    private static final int MAGIC = 0x44415743;
+    private static final int VERSION = 1;
+    
+    private final Class<T> configClass;
+    private final Path cachePath;
+    /**
+     * The hash of the class structure, or {@code null} if the class can't be encoded.
+     */
+    @Nullable
+    private final Long schemaHash;
+    
+    BinaryConfigCache(Class<T> configClass, Path sourcePath) {
+        this.configClass = configClass;
+        this.cachePath = sourcePath.resolveSibling(sourcePath.getFileName() + ".bin");
+        StringBuilder schema = new StringBuilder();
+        this.schemaHash = describe(configClass, schema, new HashSet<>()) ? hash(schema.toString()) : null;
+    }
+    
+    /**
+     * @return the cached config, or {@code null} if there is no cache matching the current source file
+     */
+    @Nullable
+    T read(Path sourcePath) {
+        if (schemaHash == null || !Files.exists(cachePath)) {
+            return null;
+        }
+        try {
+            byte[] source = Files.readAllBytes(sourcePath);
+            BasicFileAttributes attributes = Files.readAttributes(sourcePath, BasicFileAttributes.class);
+            byte[] cache = Files.readAllBytes(cachePath);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(cache));
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readLong() != schemaHash
+                || in.readLong() != source.length || in.readLong() != attributes.lastModifiedTime().toMillis()
+                || in.readLong() != checksum(source, 0, source.length)) {
+                return null;
+            }
+            long payloadChecksum = in.readLong();
+            int payloadStart = cache.length - in.available();
+            if (payloadChecksum != checksum(cache, payloadStart, cache.length - payloadStart)) {
+                return null;
+            }
+            //noinspection unchecked
+            return (T) readObject(configClass, in);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Writes the cache for a config that was just loaded from or written to the source file.
+     */
+    void write(Path sourcePath, T config) {
+        if (schemaHash == null) {
+            return;
+        }
+        try {
+            byte[] source = Files.readAllBytes(sourcePath);
+            BasicFileAttributes attributes = Files.readAttributes(sourcePath, BasicFileAttributes.class);
+            ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream();
+            writeObject(configClass, config, new DataOutputStream(payloadBytes));
+            byte[] payload = payloadBytes.toByteArray();
+            
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(payload.length + 48);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(schemaHash);
+            out.writeLong(source.length);
+            out.writeLong(attributes.lastModifiedTime().toMillis());
+            out.writeLong(checksum(source, 0, source.length));
+            out.writeLong(checksum(payload, 0, payload.length));
+            out.write(payload);
+            
+            // A new sidecar takes the attributes of the config file it caches
+            Path tempFile = TempFiles.createFor(cachePath, Files.exists(cachePath) ? cachePath : sourcePath);
+            try {
+                Files.write(tempFile, bytes.toByteArray());
+                try {
+                    Files.move(tempFile, cachePath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tempFile, cachePath, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        } catch (IOException | RuntimeException e) {
+            // The cache is only an optimization, drop it so it isn't used with a stale state
+            invalidate();
+        }
+    }
+    
+    void invalidate() {
+        try {
+            Files.deleteIfExists(cachePath);
+        } catch (IOException ignored) {
+        }
+    }
+    
+    private static List<Field> fields(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> cls = type; cls != null && cls != Object.class; cls = cls.getSuperclass()) {
+            for (Field field : cls.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers)) {
+                    fields.add(field);
+                }
+            }
+        }
+        return fields;
+    }
+    
+    /**
+     * Appends the structure of the type to the schema.
+     *
+     * @return whether values of the type can be encoded
+     */
+    private static boolean describe(Type type, StringBuilder schema, Set<Class<?>> visiting) {
+        if (type instanceof ParameterizedType parameterized && parameterized.getRawType() instanceof Class<?> raw) {
+            Type[] arguments = parameterized.getActualTypeArguments();
+            if (raw.isAssignableFrom(ArrayList.class) && arguments.length == 1) {
+                schema.append("list<");
+                return describe(arguments[0], schema, visiting) && schema.append('>') != null;
+            }
+            if (raw.isAssignableFrom(LinkedHashSet.class) && arguments.length == 1) {
+                schema.append("set<");
+                return describe(arguments[0], schema, visiting) && schema.append('>') != null;
+            }
+            if (raw.isAssignableFrom(LinkedHashMap.class) && arguments.length == 2) {
+                schema.append("map<");
+                return describe(arguments[0], schema, visiting) && schema.append(',') != null
+                       && describe(arguments[1], schema, visiting) && schema.append('>') != null;
+            }
+            return false;
+        }
+        if (!(type instanceof Class<?> cls)) {
+            return false;
+        }
+        if (cls.isPrimitive() || isBoxed(cls) || cls == String.class) {
+            schema.append(cls.getName());
+            return true;
+        }
+        if (cls.isEnum()) {
+            schema.append("enum ").append(cls.getName());
+            return true;
+        }
+        if (cls.isArray()) {
+            schema.append("array<");
+            return describe(cls.getComponentType(), schema, visiting) && schema.append('>') != null;
+        }
+        if (cls.isInterface() || Modifier.isAbstract(cls.getModifiers()) || cls.getName().startsWith("java.")) {
+            return false;
+        }
+        schema.append("object ").append(cls.getName());
+        if (!visiting.add(cls)) {
+            return true;
+        }
+        try {
+            cls.getDeclaredConstructor();
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+        schema.append('{');
+        for (Field field : fields(cls)) {
+            schema.append(field.getName()).append(':');
+            if (!describe(field.getGenericType(), schema, visiting)) {
+                return false;
+            }
+            schema.append(';');
+        }
+        schema.append('}');
+        return true;
+    }
+    
+    private static boolean isBoxed(Class<?> cls) {
+        return cls == Boolean.class || cls == Byte.class || cls == Short.class || cls == Integer.class
+               || cls == Long.class || cls == Float.class || cls == Double.class || cls == Character.class;
+    }
+    
+    private static void writeObject(Class<?> type, Object object, DataOutputStream out) throws IOException {
+        if (object.getClass() != type) {
+            // The fields of a subclass are not part of the schema
+            throw new IllegalStateException("Unexpected " + object.getClass() + " in place of " + type);
+        }
+        for (Field field : fields(type)) {
+            writeValue(field.getGenericType(), FieldAccessor.of(field).get(object), out);
+        }
+    }
+    
+    private static void writeValue(Type type, Object value, DataOutputStream out) throws IOException {
+        Class<?> cls = type instanceof ParameterizedType parameterized ? (Class<?>) parameterized.getRawType() : (Class<?>) type;
+        if (cls.isPrimitive()) {
+            writePrimitive(cls, value, out);
+            return;
+        }
+        out.writeBoolean(value != null);
+        if (value == null) {
+            return;
+        }
+        if (isBoxed(cls)) {
+            writePrimitive(cls, value, out);
+        } else if (cls == String.class) {
+            out.writeUTF((String) value);
+        } else if (cls.isEnum()) {
+            out.writeUTF(((Enum<?>) value).name());
+        } else if (cls.isArray()) {
+            int length = Array.getLength(value);
+            out.writeInt(length);
+            for (int i = 0; i < length; i++) {
+                writeValue(cls.getComponentType(), Array.get(value, i), out);
+            }
+        } else if (type instanceof ParameterizedType parameterized) {
+            Type[] arguments = parameterized.getActualTypeArguments();
+            if (arguments.length == 2) {
+                Map<?, ?> map = (Map<?, ?>) value;
+                out.writeInt(map.size());
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    writeValue(arguments[0], entry.getKey(), out);
+                    writeValue(arguments[1], entry.getValue(), out);
+                }
+            } else {
+                Collection<?> collection = (Collection<?>) value;
+                out.writeInt(collection.size());
+                for (Object element : collection) {
+                    writeValue(arguments[0], element, out);
+                }
+            }
+        } else {
+            writeObject(cls, value, out);
+        }
+    }
+    
+    private static void writePrimitive(Class<?> type, Object value, DataOutputStream out) throws IOException {
+        if (value instanceof Boolean bool) out.writeBoolean(bool);
+        else if (value instanceof Byte number) out.writeByte(number);
+        else if (value instanceof Short number) out.writeShort(number);
+        else if (value instanceof Integer number) out.writeInt(number);
+        else if (value instanceof Long number) out.writeLong(number);
+        else if (value instanceof Float number) out.writeFloat(number);
+        else if (value instanceof Double number) out.writeDouble(number);
+        else if (value instanceof Character character) out.writeChar(character);
+        else throw new IllegalArgumentException("Not a primitive: " + type);
+    }
+    
+    private static Object readObject(Class<?> type, DataInputStream in) throws IOException {
+        Object object = Utils.constructUnsafely(type);
+        for (Field field : fields(type)) {
+            FieldAccessor.of(field).set(object, readValue(field.getGenericType(), in));
+        }
+        return object;
+    }
+    
+    private static Object readValue(Type type, DataInputStream in) throws IOException {
+        Class<?> cls = type instanceof ParameterizedType parameterized ? (Class<?>) parameterized.getRawType() : (Class<?>) type;
+        if (cls.isPrimitive()) {
+            return readPrimitive(cls, in);
+        }
+        if (!in.readBoolean()) {
+            return null;
+        }
+        if (isBoxed(cls)) {
+            return readPrimitive(cls, in);
+        }
+        if (cls == String.class) {
+            return in.readUTF();
+        }
+        if (cls.isEnum()) {
+            //noinspection unchecked,rawtypes
+            return Enum.valueOf((Class<? extends Enum>) cls, in.readUTF());
+        }
+        if (cls.isArray()) {
+            int length = in.readInt();
+            Object array = Array.newInstance(cls.getComponentType(), length);
+            for (int i = 0; i < length; i++) {
+                Array.set(array, i, readValue(cls.getComponentType(), in));
+            }
+            return array;
+        }
+        if (type instanceof ParameterizedType parameterized) {
+            Type[] arguments = parameterized.getActualTypeArguments();
+            int size = in.readInt();
+            if (arguments.length == 2) {
+                Map<Object, Object> map = new LinkedHashMap<>();
+                for (int i = 0; i < size; i++) {
+                    map.put(readValue(arguments[0], in), readValue(arguments[1], in));
+                }
+                return map;
+            }
+            Collection<Object> collection = cls.isAssignableFrom(ArrayList.class) ? new ArrayList<>(size) : new LinkedHashSet<>();
+            for (int i = 0; i < size; i++) {
+                collection.add(readValue(arguments[0], in));
+            }
+            return collection;
+        }
+        return readObject(cls, in);
+    }
+    
+    private static Object readPrimitive(Class<?> type, DataInputStream in) throws IOException {
+        if (type == boolean.class || type == Boolean.class) return in.readBoolean();
+        if (type == byte.class || type == Byte.class) return in.readByte();
+        if (type == short.class || type == Short.class) return in.readShort();
+        if (type == int.class || type == Integer.class) return in.readInt();
+        if (type == long.class || type == Long.class) return in.readLong();
+        if (type == float.class || type == Float.class) return in.readFloat();
+        if (type == double.class || type == Double.class) return in.readDouble();
+        if (type == char.class || type == Character.class) return in.readChar();
+        throw new IllegalArgumentException("Not a primitive: " + type);
+    }
+    
+    private static long checksum(byte[] bytes, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, offset, length);
+        return crc.getValue() ^ ((long) length << 32);
+    }
+    
+    private static long hash(String string) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < string.length(); i++) {
+            hash = (hash ^ string.charAt(i)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+}
@@ -22,6 +22,10 @@ package com.raxdiam.dawn.serializer;
 import com.raxdiam.dawn.ConfigData;
 import com.raxdiam.dawn.annotation.Config;
 
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+
 public interface ConfigSerializer<T extends ConfigData> {
     
     void serialize(T config) throws SerializationException;
@@ -30,6 +34,13 @@ public interface ConfigSerializer<T extends ConfigData> {
     
     T createDefault();
     
+    /**
+     * @return the files this serializer reads and writes, used to watch them for external changes
+     */
+    default Collection<Path> getFiles() {
+        return Collections.emptyList();
+    }
+    
     @FunctionalInterface
     interface Factory<T extends ConfigData> {
         ConfigSerializer<T> create(Config definition, Class<T> configClass);
@@ -39,6 +50,10 @@ public interface ConfigSerializer<T extends ConfigData> {
         public SerializationException(Throwable cause) {
             super(cause);
         }
+        
+        public SerializationException(String message, Throwable cause) {
+            super(message, cause);
+        }
     }
 }
 
@@ -1,54 +1,120 @@
 package com.raxdiam.dawn.serializer;
 
+import com.electronwill.nightconfig.core.CommentedConfig;
 import com.electronwill.nightconfig.core.file.CommentedFileConfig;
 import com.electronwill.nightconfig.core.serde.ObjectDeserializer;
 import com.electronwill.nightconfig.core.serde.ObjectSerializer;
 import com.electronwill.nightconfig.core.serde.SerdeException;
+import com.electronwill.nightconfig.toml.TomlFormat;
 import com.raxdiam.dawn.ConfigData;
 import com.raxdiam.dawn.annotation.Config;
+import com.raxdiam.dawn.util.GeneratedConfigSupport;
+import com.raxdiam.dawn.util.GeneratedConfigs;
 import com.raxdiam.dawn.util.Utils;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 
 import static com.electronwill.nightconfig.core.Config.*;
 
 public class NightConfigSerializer<T extends ConfigData> implements ConfigSerializer<T> {
     private final Class<T> configClass;
     private final Path configPath;
+    private final FsyncPolicy fsyncPolicy;
+    private final BinaryConfigCache<T> binaryCache;
+    private final GeneratedConfigSupport<T> generated;
     private final ObjectSerializer serializer = ObjectSerializer.standard();
     private final ObjectDeserializer deserializer = ObjectDeserializer.standard();
 
     public NightConfigSerializer(Config definition, Class<T> configClass) {
+        this(definition, configClass, Utils.getConfigFolder());
+    }
+
+    public NightConfigSerializer(Config definition, Class<T> configClass, Path configFolder) {
+        this(definition, configClass, configFolder, FsyncPolicy.NONE);
+    }
+
+    public NightConfigSerializer(Config definition, Class<T> configClass, Path configFolder, FsyncPolicy fsyncPolicy) {
+        this(definition, configClass, configFolder, fsyncPolicy, false);
+    }
+
+    /**
+     * @param binaryCache whether to keep a binary sidecar of the loaded state next to the file,
+     *                    which is loaded instead of parsing the file as long as the file is unchanged
+     */
+    public NightConfigSerializer(Config definition, Class<T> configClass, Path configFolder, FsyncPolicy fsyncPolicy, boolean binaryCache) {
         if (!isInsertionOrderPreserved()) {
             setInsertionOrderPreserved(true);
         }
 
         this.configClass = configClass;
-        this.configPath = Utils.getConfigFolder().resolve(definition.name() + ".toml");
+        this.configPath = configFolder.resolve(definition.name() + ".toml");
+        this.fsyncPolicy = fsyncPolicy;
+        this.binaryCache = binaryCache ? new BinaryConfigCache<>(configClass, configPath) : null;
+        this.generated = GeneratedConfigs.find(configClass);
+    }
+
+    /**
+     * Creates a factory for serializers writing to the config folder with the given fsync policy.
+     */
+    public static <T extends ConfigData> ConfigSerializer.Factory<T> withFsyncPolicy(FsyncPolicy fsyncPolicy) {
+        return (definition, configClass) -> new NightConfigSerializer<>(definition, configClass, Utils.getConfigFolder(), fsyncPolicy);
+    }
+
+    /**
+     * Creates a factory for serializers writing to the config folder with the given fsync policy,
+     * which keep a binary cache of each config for faster loading.
+     */
+    public static <T extends ConfigData> ConfigSerializer.Factory<T> withBinaryCache(FsyncPolicy fsyncPolicy) {
+        return (definition, configClass) -> new NightConfigSerializer<>(definition, configClass, Utils.getConfigFolder(), fsyncPolicy, true);
     }
 
     @Override
     public void serialize(T config) throws SerializationException {
-        try (var configFile = CommentedFileConfig.of(configPath)) {
-            writeConfig(config, configFile);
-        } catch (SerdeException e) {
+        try {
+            writeConfig(config);
+        } catch (SerdeException | IOException e) {
             throw new SerializationException(e);
         }
     }
 
     @Override
     public T deserialize() throws SerializationException {
-        try (var configFile = CommentedFileConfig.of(configPath)) {
-            var config = createDefault();
+        try {
             if (!Files.exists(configPath)) {
-                writeConfig(config, configFile);
+                var config = createDefault();
+                writeConfig(config);
                 return config;
             }
-            configFile.load();
-            deserializer.deserializeFields(configFile, config);
+            if (binaryCache != null) {
+                T cached = binaryCache.read(configPath);
+                if (cached != null) {
+                    return cached;
+                }
+            }
+            var config = createDefault();
+            try (var configFile = CommentedFileConfig.of(configPath)) {
+                configFile.load();
+                if (generated == null || !generated.deserialize(configFile::get, config)) {
+                    deserializer.deserializeFields(configFile, config);
+                }
+            }
+            if (binaryCache != null) {
+                binaryCache.write(configPath, config);
+            }
             return config;
-        } catch (SerdeException e) {
+        } catch (SerdeException | IOException | ClassCastException e) {
             throw new SerializationException(e);
         }
     }
@@ -58,8 +124,82 @@ public class NightConfigSerializer<T extends ConfigData> implements ConfigSerial
         return Utils.constructUnsafely(configClass);
     }
 
-    private void writeConfig(T config, CommentedFileConfig configFile) {
-        serializer.serializeFields(config, configFile);
-        configFile.save();
+    @Override
+    public Collection<Path> getFiles() {
+        return List.of(configPath);
+    }
+
+    /**
+     * Writes the config to a temporary file next to the target, which is then moved over it,
+     * so the target is never left partially written. Nothing is written if the file is already up to date.
+     */
+    private void writeConfig(T config) throws IOException {
+        CommentedConfig toml = TomlFormat.newConfig();
+        if (generated == null || !generated.serialize(config, toml::set)) {
+            serializer.serializeFields(config, toml);
+        }
+        StringWriter writer = new StringWriter();
+        TomlFormat.instance().createWriter().write(toml, writer);
+        byte[] bytes = writer.toString().getBytes(StandardCharsets.UTF_8);
+
+        if (Files.exists(configPath) && Arrays.equals(Files.readAllBytes(configPath), bytes)) {
+            return;
+        }
+
+        Path directory = configPath.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path tempFile = TempFiles.createFor(configPath, configPath);
+        try {
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                if (fsyncPolicy != FsyncPolicy.NONE) {
+                    channel.force(true);
+                }
+            }
+            try {
+                Files.move(tempFile, configPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, configPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+
+        if (fsyncPolicy == FsyncPolicy.FILE_AND_DIRECTORY) {
+            forceDirectory(directory);
+        }
+        if (binaryCache != null) {
+            // Rebuilt on the next load from what the text actually parses to, values such as nulls don't survive the text
+            binaryCache.invalidate();
+        }
+    }
+
+    private static void forceDirectory(Path directory) {
+        // Persists the rename, not every platform allows opening a directory for this
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * How far a write is flushed to the storage device before {@link #serialize(ConfigData)} returns.
+     */
+    public enum FsyncPolicy {
+        /**
+         * Leaves flushing to the operating system. The file is still replaced atomically.
+         */
+        NONE,
+        /**
+         * Flushes the written file before it replaces the old one.
+         */
+        FILE,
+        /**
+         * Also flushes the directory, so the replacement itself survives a power loss.
+         */
+        FILE_AND_DIRECTORY
     }
 }
@@ -19,15 +19,32 @@
 
 package com.raxdiam.dawn.serializer;
 
+import com.raxdiam.dawn.ConfigClassModel;
 import com.raxdiam.dawn.ConfigData;
 import com.raxdiam.dawn.annotation.Config;
+import com.raxdiam.dawn.util.ConfigSnapshots;
 import com.raxdiam.dawn.util.Utils;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -38,12 +55,26 @@ import java.util.stream.Collectors;
  * Each field of the top level config must be of a type inheriting from ConfigData.
  */
 public final class PartitioningSerializer<T extends PartitioningSerializer.GlobalData, M extends ConfigData> implements ConfigSerializer<T> {
+    /**
+     * Module files are read and written on virtual threads, the work is dominated by file IO.
+     */
+    private static final ExecutorService MODULE_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
     
     private Class<T> configClass;
+    /**
+     * The executor modules are processed on, or {@code null} to process them one after another on the calling thread.
+     */
+    private final Executor executor;
     private Map<Field, ConfigSerializer<M>> serializers;
+    /**
+     * The fingerprint of each module and the stamps of its files as they were last written. Modules
+     * that still match it, and whose files weren't touched since, are not serialized again.
+     */
+    private final Map<Field, WrittenModule> writtenModules = new ConcurrentHashMap<>();
     
-    private PartitioningSerializer(Config definition, Class<T> configClass, ConfigSerializer.Factory<M> factory) {
+    private PartitioningSerializer(Config definition, Class<T> configClass, ConfigSerializer.Factory<M> factory, Executor executor) {
         this.configClass = configClass;
+        this.executor = executor;
         
         //noinspection unchecked
         serializers = getModuleFields(configClass).stream()
@@ -55,7 +86,7 @@ public final class PartitioningSerializer<T extends PartitioningSerializer.Globa
                                                 String.format(
                                                         "%s/%s",
                                                         definition.name(),
-                                                        field.getType().getAnnotation(Config.class).name()
+                                                        ConfigClassModel.of(field.getType()).getDefinition().name()
                                                 )
                                         ),
                                         (Class<M>) field.getType()
@@ -66,7 +97,23 @@ public final class PartitioningSerializer<T extends PartitioningSerializer.Globa
     
     public static <T extends PartitioningSerializer.GlobalData, M extends ConfigData>
     ConfigSerializer.Factory<T> wrap(ConfigSerializer.Factory<M> inner) {
-        return (definition, configClass) -> new PartitioningSerializer<>(definition, configClass, inner);
+        return (definition, configClass) -> new PartitioningSerializer<>(definition, configClass, inner, null);
+    }
+    
+    /**
+     * Like {@link #wrap(ConfigSerializer.Factory)}, but loads and saves all modules in parallel.
+     */
+    public static <T extends PartitioningSerializer.GlobalData, M extends ConfigData>
+    ConfigSerializer.Factory<T> wrapParallel(ConfigSerializer.Factory<M> inner) {
+        return wrapParallel(inner, MODULE_EXECUTOR);
+    }
+    
+    /**
+     * Like {@link #wrap(ConfigSerializer.Factory)}, but loads and saves the modules in parallel on the given executor.
+     */
+    public static <T extends PartitioningSerializer.GlobalData, M extends ConfigData>
+    ConfigSerializer.Factory<T> wrapParallel(ConfigSerializer.Factory<M> inner, Executor executor) {
+        return (definition, configClass) -> new PartitioningSerializer<>(definition, configClass, inner, executor);
     }
     
     private static Config createDefinition(String name) {
@@ -94,52 +141,163 @@ public final class PartitioningSerializer<T extends PartitioningSerializer.Globa
         };
     }
     
-    private static boolean isValidModule(Field field) {
-        return ConfigData.class.isAssignableFrom(field.getType())
-               && field.getType().isAnnotationPresent(Config.class);
-    }
-    
     private static List<Field> getModuleFields(Class<?> configClass) {
-        return Arrays.stream(configClass.getDeclaredFields())
-                .filter(PartitioningSerializer::isValidModule)
+        return ConfigClassModel.of(configClass).getModuleFields().stream()
+                .map(ConfigClassModel.FieldModel::getField)
                 .collect(Collectors.toList());
     }
     
     @Override
     public void serialize(T config) throws SerializationException {
-        for (Map.Entry<Field, ConfigSerializer<M>> entry : serializers.entrySet()) {
-            entry.getValue().serialize(Utils.getUnsafely(entry.getKey(), config));
+        forEachModule((field, serializer) -> {
+            M module = Utils.getUnsafely(field, config);
+            long fingerprint = ConfigSnapshots.fingerprint(module);
+            WrittenModule written = writtenModules.get(field);
+            if (written != null && written.fingerprint() == fingerprint && written.stamps() != null && Arrays.equals(written.stamps(), stampFiles(serializer))) {
+                return null;
+            }
+            serializer.serialize(module);
+            writtenModules.put(field, new WrittenModule(fingerprint, stampFiles(serializer)));
+            return null;
+        });
+    }
+    
+    /**
+     * Reads the size and modification time of the files of a module, so files edited or deleted
+     * by someone else are written again.
+     *
+     * @return the stamps, or {@code null} if a file is missing or can't be read
+     */
+    @Nullable
+    private static FileStamp[] stampFiles(ConfigSerializer<?> serializer) {
+        Collection<Path> files = serializer.getFiles();
+        FileStamp[] stamps = new FileStamp[files.size()];
+        int i = 0;
+        for (Path file : files) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                stamps[i++] = new FileStamp(attributes.size(), attributes.lastModifiedTime());
+            } catch (IOException e) {
+                return null;
+            }
         }
+        return stamps;
+    }
+    
+    private record FileStamp(long size, FileTime lastModified) {
+    }
+    
+    private record WrittenModule(long fingerprint, @Nullable FileStamp[] stamps) {
     }
     
     @Override
     public T deserialize() throws SerializationException {
+        // The loaded files may lack entries the modules have, so they are written again on the next save
+        writtenModules.clear();
         T ret = createDefault();
-        for (Map.Entry<Field, ConfigSerializer<M>> entry : serializers.entrySet()) {
-            Utils.setUnsafely(entry.getKey(), ret, entry.getValue().deserialize());
+        List<M> modules = forEachModule((field, serializer) -> serializer.deserialize());
+        // Assigned on the calling thread in declaration order, whatever order the modules finished in
+        int i = 0;
+        for (Field field : serializers.keySet()) {
+            Utils.setUnsafely(field, ret, modules.get(i++));
         }
         return ret;
     }
     
+    /**
+     * Runs the task for every module, in parallel if this serializer has an executor.
+     * A failing module doesn't stop the others, the failures of all modules are reported together.
+     *
+     * @return the results of the task, in module order
+     */
+    private <R> List<R> forEachModule(ModuleTask<M, R> task) throws SerializationException {
+        List<Map.Entry<Field, ConfigSerializer<M>>> entries = List.copyOf(serializers.entrySet());
+        List<R> results = new ArrayList<>(Collections.nCopies(entries.size(), null));
+        Throwable[] failures = new Throwable[entries.size()];
+        if (executor == null) {
+            for (int i = 0; i < entries.size(); i++) {
+                try {
+                    results.set(i, task.run(entries.get(i).getKey(), entries.get(i).getValue()));
+                } catch (SerializationException | RuntimeException e) {
+                    failures[i] = e;
+                }
+            }
+        } else {
+            List<CompletableFuture<R>> futures = new ArrayList<>(entries.size());
+            for (Map.Entry<Field, ConfigSerializer<M>> entry : entries) {
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return task.run(entry.getKey(), entry.getValue());
+                    } catch (SerializationException e) {
+                        throw new CompletionException(e);
+                    }
+                }, executor));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.set(i, futures.get(i).join());
+                } catch (CompletionException e) {
+                    failures[i] = e.getCause();
+                }
+            }
+        }
+        
+        SerializationException failure = null;
+        int failed = 0;
+        for (int i = 0; i < failures.length; i++) {
+            if (failures[i] == null) continue;
+            SerializationException moduleFailure = new SerializationException(
+                    String.format("Module '%s' of %s failed", entries.get(i).getKey().getName(), configClass.getName()),
+                    failures[i]
+            );
+            if (failure == null) {
+                failure = moduleFailure;
+            } else {
+                failure.addSuppressed(moduleFailure);
+            }
+            failed++;
+        }
+        if (failure != null) {
+            // Unexpected errors of a single module propagate as they did before
+            if (failed == 1 && failure.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw failure;
+        }
+        return results;
+    }
+    
+    @FunctionalInterface
+    private interface ModuleTask<M extends ConfigData, R> {
+        R run(Field field, ConfigSerializer<M> serializer) throws SerializationException;
+    }
+    
     @Override
     public T createDefault() {
         return Utils.constructUnsafely(configClass);
     }
     
+    @Override
+    public Collection<Path> getFiles() {
+        return serializers.values().stream()
+                .flatMap(serializer -> serializer.getFiles().stream())
+                .collect(Collectors.toList());
+    }
+    
     public static abstract class GlobalData implements ConfigData {
         
         public GlobalData() {
-            Arrays.stream(getClass().getDeclaredFields())
-                    .filter(field -> !isValidModule(field))
+            ConfigClassModel.of(getClass()).getFields().stream()
+                    .filter(field -> !field.isModule())
                     .forEach(field -> {
-                        throw new RuntimeException(String.format("Invalid module: %s", field));
+                        throw new RuntimeException(String.format("Invalid module: %s", field.getField()));
                     });
         }
         
         @Override
         final public void validatePostLoad() throws ValidationException {
-            for (Field moduleField : getModuleFields(getClass())) {
-                ((ConfigData) Utils.getUnsafely(moduleField, this)).validatePostLoad();
+            for (ConfigClassModel.FieldModel moduleField : ConfigClassModel.of(getClass()).getModuleFields()) {
+                ((ConfigData) Utils.getUnsafely(moduleField.getField(), this)).validatePostLoad();
             }
         }
     }
@@ -0,0 +1,90 @@
+/*
+ * This file is part of Dawn Config (formerly 'Cloth Config').
+ * Copyright (C) 2020 - 2021 shedaniel
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.raxdiam.dawn.serializer;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Temporary files that are moved over a target file once written.
+ * <p>
+ * {@link Files#createTempFile} creates files only readable by their owner, moving one over the
+ * target would silently change the target's permissions. These files are created like any other
+ * file instead, and take the permissions, owner and group of an existing file where possible.
+ */
+final class TempFiles {
+    private TempFiles() {
+    }
+    
+    /**
+     * Creates an empty temporary file next to the target.
+     *
+     * @param attributesSource the file whose posix attributes the temporary file takes, if it exists
+     */
+    static Path createFor(Path target, Path attributesSource) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        String prefix = target.getFileName().toString() + ".";
+        Path tempFile;
+        while (true) {
+            try {
+                tempFile = Files.createFile(directory.resolve(prefix + Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), 36) + ".tmp"));
+                break;
+            } catch (FileAlreadyExistsException ignored) {
+            }
+        }
+        try {
+            copyPosixAttributes(attributesSource, tempFile);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+        return tempFile;
+    }
+    
+    private static void copyPosixAttributes(Path source, Path target) throws IOException {
+        PosixFileAttributeView sourceView = Files.getFileAttributeView(source, PosixFileAttributeView.class);
+        if (sourceView == null || !Files.exists(source)) {
+            return;
+        }
+        PosixFileAttributes attributes = sourceView.readAttributes();
+        PosixFileAttributeView targetView = Files.getFileAttributeView(target, PosixFileAttributeView.class, LinkOption.NOFOLLOW_LINKS);
+        if (targetView == null) {
+            return;
+        }
+        targetView.setPermissions(attributes.permissions());
+        PosixFileAttributes created = targetView.readAttributes();
+        try {
+            // Only possible with enough privileges, otherwise the writing user owns the file anyway
+            if (!created.owner().equals(attributes.owner())) {
+                targetView.setOwner(attributes.owner());
+            }
+            if (!created.group().equals(attributes.group())) {
+                targetView.setGroup(attributes.group());
+            }
+        } catch (IOException ignored) {
+        }
+    }
+}
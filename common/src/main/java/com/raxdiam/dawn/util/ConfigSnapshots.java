@@ -0,0 +1,312 @@
+/*
+ * This file is part of Dawn Config (formerly 'Cloth Config').
+ * Copyright (C) 2020 - 2021 shedaniel
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.raxdiam.dawn.util;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * Deep copies of config objects, used to hand a consistent snapshot of a config
+ * to a background writer while the original keeps being modified.
+ * <p>
+ * Immutable values are shared, arrays, lists, sets and maps are copied element by
+ * element and any other object is recreated with its no-arg constructor and its
+ * fields copied. Objects without a no-arg constructor are only shared if all their
+ * fields are final and hold immutable values, any other object that can't be
+ * recreated is refused with an {@link IllegalArgumentException}, as sharing it would
+ * let changes leak between the copy and the original.
+ * <p>
+ * The same traversal computes {@link #fingerprint(Object) fingerprints} of config
+ * objects, to tell whether their state changed since they were last written.
+ */
+public final class ConfigSnapshots {
+    private static final Set<Class<?>> IMMUTABLE_TYPES = Set.of(
+            String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class,
+            Long.class, Float.class, Double.class, BigInteger.class, BigDecimal.class, UUID.class, Class.class
+    );
+    private static final ClassValue<FieldAccessor[]> ACCESSORS = new ClassValue<>() {
+        @Override
+        protected FieldAccessor[] computeValue(Class<?> type) {
+            List<FieldAccessor> accessors = new ArrayList<>();
+            for (Class<?> cls = type; cls != null && cls != Object.class; cls = cls.getSuperclass()) {
+                for (Field field : cls.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers())) {
+                        accessors.add(FieldAccessor.of(field));
+                    }
+                }
+            }
+            return accessors.toArray(new FieldAccessor[0]);
+        }
+    };
+    
+    private static final ClassValue<Boolean> FINAL_FIELDS = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            for (Class<?> cls = type; cls != null && cls != Object.class; cls = cls.getSuperclass()) {
+                for (Field field : cls.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (!Modifier.isStatic(modifiers) && !Modifier.isFinal(modifiers)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+    };
+    
+    private ConfigSnapshots() {
+    }
+    
+    /**
+     * @throws IllegalArgumentException if the value holds an object that can't be copied
+     */
+    public static <T> T copy(T value) {
+        //noinspection unchecked
+        return (T) copyValue(value, new IdentityHashMap<>());
+    }
+    
+    /**
+     * Computes a 64-bit hash over the whole state of a value, following the same
+     * structure {@link #copy(Object)} does. Values that can't be copied are hashed
+     * through their {@link Object#hashCode()}.
+     */
+    public static long fingerprint(Object value) {
+        return fingerprintValue(value, Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+    
+    private static Object copyValue(Object value, Map<Object, Object> copies) {
+        if (value == null || isImmutable(value)) {
+            return value;
+        }
+        Object existing = copies.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        Class<?> type = value.getClass();
+        if (type.isArray()) {
+            int length = Array.getLength(value);
+            Object copy = Array.newInstance(type.getComponentType(), length);
+            copies.put(value, copy);
+            if (type.getComponentType().isPrimitive()) {
+                System.arraycopy(value, 0, copy, 0, length);
+            } else {
+                Object[] source = (Object[]) value;
+                Object[] target = (Object[]) copy;
+                for (int i = 0; i < length; i++) {
+                    target[i] = copyValue(source[i], copies);
+                }
+            }
+            return copy;
+        }
+        if (value instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>(list.size());
+            copies.put(value, copy);
+            for (Object element : list) {
+                copy.add(copyValue(element, copies));
+            }
+            return copy;
+        }
+        if (value instanceof Set<?> set) {
+            Set<Object> copy = new LinkedHashSet<>();
+            copies.put(value, copy);
+            for (Object element : set) {
+                copy.add(copyValue(element, copies));
+            }
+            return copy;
+        }
+        if (value instanceof Map<?, ?> map) {
+            Map<Object, Object> copy = new LinkedHashMap<>();
+            copies.put(value, copy);
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                copy.put(copyValue(entry.getKey(), copies), copyValue(entry.getValue(), copies));
+            }
+            return copy;
+        }
+        return copyObject(value, type, copies);
+    }
+    
+    private static Object copyObject(Object value, Class<?> type, Map<Object, Object> copies) {
+        if (isDeeplyImmutable(value, Collections.newSetFromMap(new IdentityHashMap<>()))) {
+            return value;
+        }
+        FieldAccessor[] accessors;
+        Object copy;
+        try {
+            accessors = ACCESSORS.get(type);
+            copy = Utils.constructUnsafely(type);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Can't copy config value of type " + type.getName() + ", it has no no-arg constructor and isn't immutable", e);
+        }
+        copies.put(value, copy);
+        for (FieldAccessor accessor : accessors) {
+            Object fieldValue = accessor.get(value);
+            Object fieldCopy = copyValue(fieldValue, copies);
+            if (fieldCopy != fieldValue && !accessor.getField().getType().isInstance(fieldCopy)) {
+                // The copied collection type does not fit the declared field type, refill one of the original type
+                fieldCopy = copyCollection(fieldValue, fieldCopy, accessor.getField());
+            }
+            accessor.set(copy, fieldCopy);
+        }
+        return copy;
+    }
+    
+    private static Object copyCollection(Object original, Object copiedElements, Field field) {
+        Object copy;
+        try {
+            copy = Utils.constructUnsafely(original.getClass());
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Can't copy field " + field + ", its " + original.getClass().getName() + " has no no-arg constructor", e);
+        }
+        if (copy instanceof Collection<?> collection) {
+            //noinspection unchecked
+            ((Collection<Object>) collection).addAll((Collection<?>) copiedElements);
+        } else {
+            //noinspection unchecked
+            ((Map<Object, Object>) copy).putAll((Map<?, ?>) copiedElements);
+        }
+        return copy;
+    }
+    
+    /**
+     * Whether the value only has final fields, all holding immutable values. Such values
+     * can be shared even when they can't be recreated.
+     */
+    private static boolean isDeeplyImmutable(Object value, Set<Object> visited) {
+        if (value == null || isImmutable(value)) {
+            return true;
+        }
+        Class<?> type = value.getClass();
+        if (type.isArray() || value instanceof Collection<?> || value instanceof Map<?, ?> || !FINAL_FIELDS.get(type)) {
+            return false;
+        }
+        if (!visited.add(value)) {
+            return true;
+        }
+        FieldAccessor[] accessors;
+        try {
+            accessors = ACCESSORS.get(type);
+        } catch (RuntimeException e) {
+            return false;
+        }
+        for (FieldAccessor accessor : accessors) {
+            if (!accessor.getField().getType().isPrimitive() && !isDeeplyImmutable(accessor.get(value), visited)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static long fingerprintValue(Object value, Set<Object> visited) {
+        if (value == null) {
+            return 0x5bd1e995L;
+        }
+        Class<?> type = value.getClass();
+        // Copies may swap collection implementations, so only element types take part
+        long hash = value instanceof Collection<?> || value instanceof Map<?, ?> ? 0 : mix(hashString(type.getName()));
+        if (value instanceof String string) {
+            return mix(hash ^ hashString(string));
+        }
+        if (value instanceof Double number) {
+            return mix(hash ^ Double.doubleToLongBits(number));
+        }
+        if (value instanceof Float number) {
+            return mix(hash ^ Float.floatToIntBits(number));
+        }
+        if (value instanceof Number number && type.getName().startsWith("java.lang.")) {
+            return mix(hash ^ number.longValue());
+        }
+        if (value instanceof Boolean bool) {
+            return mix(hash ^ (bool ? 1 : 2));
+        }
+        if (value instanceof Character character) {
+            return mix(hash ^ character);
+        }
+        if (value instanceof Enum<?> constant) {
+            return mix(hash ^ hashString(constant.name()));
+        }
+        if (isImmutable(value)) {
+            return mix(hash ^ hashString(value.toString()));
+        }
+        if (!visited.add(value)) {
+            // Cycles contribute their presence only
+            return mix(hash);
+        }
+        if (type.isArray()) {
+            int length = Array.getLength(value);
+            for (int i = 0; i < length; i++) {
+                hash = mix(hash ^ fingerprintValue(Array.get(value, i), visited));
+            }
+            return mix(hash ^ length);
+        }
+        if (value instanceof Collection<?> collection) {
+            if (value instanceof Set<?>) {
+                // Copies don't keep the iteration order of every set, combine order independently
+                long sum = 0;
+                for (Object element : collection) {
+                    sum += fingerprintValue(element, visited);
+                }
+                return mix(hash ^ sum);
+            }
+            for (Object element : collection) {
+                hash = mix(hash ^ fingerprintValue(element, visited));
+            }
+            return mix(hash ^ collection.size());
+        }
+        if (value instanceof Map<?, ?> map) {
+            long sum = 0;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                sum += mix(fingerprintValue(entry.getKey(), visited) * 31 + fingerprintValue(entry.getValue(), visited));
+            }
+            return mix(hash ^ sum);
+        }
+        FieldAccessor[] accessors;
+        try {
+            accessors = ACCESSORS.get(type);
+        } catch (RuntimeException e) {
+            return mix(hash ^ value.hashCode());
+        }
+        for (FieldAccessor accessor : accessors) {
+            hash = mix(hash ^ fingerprintValue(accessor.get(value), visited));
+        }
+        return hash;
+    }
+    
+    private static long hashString(String string) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < string.length(); i++) {
+            hash = (hash ^ string.charAt(i)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+    
+    private static long mix(long hash) {
+        hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+        hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+    
+    private static boolean isImmutable(Object value) {
+        return IMMUTABLE_TYPES.contains(value.getClass()) || value instanceof Enum<?> || value.getClass().isRecord();
+    }
+}
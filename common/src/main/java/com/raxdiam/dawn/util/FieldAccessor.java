@@ -0,0 +1,131 @@
+/*
+ * This file is part of Dawn Config (formerly 'Cloth Config').
+ * Copyright (C) 2020 - 2021 shedaniel
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.raxdiam.dawn.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cached {@link MethodHandle} based access to a field, created once per field
+ * and shared by {@link Utils#getUnsafely(Field, Object)} and {@link Utils#setUnsafely(Field, Object, Object)}.
+ * <p>
+ * The handles are adapted to fixed erased signatures so they can be invoked
+ * exactly. Primitive values are boxed, like {@link Field#get} and {@link Field#set} do.
+ */
+public final class FieldAccessor {
+    private static final Map<Field, FieldAccessor> ACCESSORS = new ConcurrentHashMap<>();
+    private static final MethodHandle GENERATED_GET;
+    private static final MethodHandle GENERATED_SET;
+    
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            GENERATED_GET = lookup.findVirtual(GeneratedConfigSupport.class, "get", MethodType.methodType(Object.class, int.class, Object.class));
+            GENERATED_SET = lookup.findVirtual(GeneratedConfigSupport.class, "set", MethodType.methodType(void.class, int.class, Object.class, Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+    
+    private final Field field;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+    
+    private FieldAccessor(Field field) {
+        this.field = field;
+        try {
+            MethodHandle getter;
+            MethodHandle setter;
+            GeneratedConfigSupport<?> generated = GeneratedConfigs.find(field.getDeclaringClass());
+            int index = generated == null || Modifier.isStatic(field.getModifiers()) ? -1 : generated.fieldIndex(field.getName());
+            if (index >= 0) {
+                // Bound to the generated accessor, which needs no access checks
+                getter = MethodHandles.insertArguments(GENERATED_GET.bindTo(generated), 0, index)
+                        .asType(MethodType.methodType(field.getType(), field.getDeclaringClass()));
+                setter = MethodHandles.insertArguments(GENERATED_SET.bindTo(generated), 0, index)
+                        .asType(MethodType.methodType(void.class, field.getDeclaringClass(), field.getType()));
+            } else {
+                field.setAccessible(true);
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                getter = lookup.unreflectGetter(field);
+                setter = unreflectSetter(lookup, field);
+                if (Modifier.isStatic(field.getModifiers())) {
+                    // Static accessors ignore the instance, like Field#get and Field#set do
+                    getter = MethodHandles.dropArguments(getter, 0, Object.class);
+                    setter = MethodHandles.dropArguments(setter, 0, Object.class);
+                }
+            }
+            this.getter = getter.asType(MethodType.methodType(Object.class, Object.class));
+            this.setter = setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+    
+    /**
+     * Unreflects the setter of a field. Static final fields cannot be set even when accessible,
+     * their setter throws the access error when invoked instead, like {@link Field#set} does.
+     */
+    private static MethodHandle unreflectSetter(MethodHandles.Lookup lookup, Field field) {
+        try {
+            return lookup.unreflectSetter(field);
+        } catch (IllegalAccessException e) {
+            MethodHandle thrower = MethodHandles.throwException(void.class, IllegalAccessException.class).bindTo(e);
+            return Modifier.isStatic(field.getModifiers())
+                    ? MethodHandles.dropArguments(thrower, 0, field.getType())
+                    : MethodHandles.dropArguments(thrower, 0, field.getDeclaringClass(), field.getType());
+        }
+    }
+    
+    public static FieldAccessor of(Field field) {
+        return ACCESSORS.computeIfAbsent(field, FieldAccessor::new);
+    }
+    
+    public Field getField() {
+        return field;
+    }
+    
+    public Object get(Object obj) {
+        try {
+            return (Object) getter.invokeExact(obj);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+    
+    public void set(Object obj, Object value) {
+        try {
+            setter.invokeExact(obj, value);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+    
+    private static RuntimeException rethrow(Throwable e) {
+        if (e instanceof RuntimeException runtimeException) return runtimeException;
+        if (e instanceof Error error) throw error;
+        return new RuntimeException(e);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * This file is part of Dawn Config (formerly 'Cloth Config').
+ * Copyright (C) 2020 - 2021 shedaniel
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.raxdiam.dawn.util;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Implemented by the classes the Dawn Config annotation processor generates for config classes,
+ * replacing reflection with direct field access. Found through {@link GeneratedConfigs#find(Class)}.
+ * <p>
+ * Only the fields declared by the config class itself are handled, and only those the generated
+ * class can access, everything else keeps going through reflection.
+ *
+ * @param <T> the config class
+ */
+public interface GeneratedConfigSupport<T> {
+    /**
+     * @return a new instance with its default values, or {@code null} if the class has no accessible no-arg constructor
+     */
+    @Nullable
+    T createDefault();
+    
+    /**
+     * @return the index of the field for {@link #get(int, Object)} and {@link #set(int, Object, Object)}, or -1 if it isn't handled
+     */
+    int fieldIndex(String name);
+    
+    Object get(int field, T instance);
+    
+    void set(int field, T instance, Object value);
+    
+    /**
+     * Writes the fields of the instance as top level values, in declaration order.
+     *
+     * @return whether the instance was written, if not nothing has been passed to the output
+     */
+    boolean serialize(T instance, BiConsumer<String, Object> output);
+    
+    /**
+     * Reads the fields of the instance from top level values, fields without a value keep theirs.
+     *
+     * @return whether the class can be read by the generated code, if not the instance is untouched
+     */
+    boolean deserialize(Function<String, Object> input, T instance);
+}
@@ -0,0 +1,67 @@
+/*
+ * This file is part of Dawn Config (formerly 'Cloth Config').
+ * Copyright (C) 2020 - 2021 shedaniel
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.raxdiam.dawn.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Optional;
+
+/**
+ * Looks up the {@link GeneratedConfigSupport} of config classes. The generated class of
+ * {@code com.example.Outer$Inner} is {@code com.example.Outer_Inner_DawnGenerated}.
+ */
+public final class GeneratedConfigs {
+    public static final String SUFFIX = "_DawnGenerated";
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final ClassValue<Optional<GeneratedConfigSupport<?>>> SUPPORT = new ClassValue<>() {
+        @Override
+        protected Optional<GeneratedConfigSupport<?>> computeValue(Class<?> type) {
+            if (type.isPrimitive() || type.isArray() || type.getClassLoader() == null) {
+                return Optional.empty();
+            }
+            String packageName = type.getPackageName();
+            String simpleName = packageName.isEmpty() ? type.getName() : type.getName().substring(packageName.length() + 1);
+            String generatedName = (packageName.isEmpty() ? "" : packageName + ".") + simpleName.replace('$', '_') + SUFFIX;
+            try {
+                Class<?> generated = Class.forName(generatedName, true, type.getClassLoader());
+                if (!GeneratedConfigSupport.class.isAssignableFrom(generated)) {
+                    return Optional.empty();
+                }
+                return Optional.of((GeneratedConfigSupport<?>) generated.getDeclaredConstructor().newInstance());
+            } catch (ClassNotFoundException e) {
+                return Optional.empty();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                LOGGER.warn("Failed to load generated config support {}", generatedName, e);
+                return Optional.empty();
+            }
+        }
+    };
+    
+    private GeneratedConfigs() {
+    }
+    
+    @Nullable
+    public static <T> GeneratedConfigSupport<T> find(Class<T> type) {
+        //noinspection unchecked
+        return (GeneratedConfigSupport<T>) SUPPORT.get(type).orElse(null);
+    }
+}
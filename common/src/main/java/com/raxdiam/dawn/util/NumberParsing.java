@@ -0,0 +1,196 @@
+/*
+ * This file is part of Dawn Config (formerly 'Cloth Config').
+ * Copyright (C) 2020 - 2021 shedaniel
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.raxdiam.dawn.util;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Number parsers returning {@code null} for invalid text instead of throwing. Valid text parses
+ * exactly like {@link Integer#parseInt(String)}, {@link Long#parseLong(String, int)},
+ * {@link Float#parseFloat(String)} and {@link Double#parseDouble(String)}.
+ */
+public final class NumberParsing {
+    private NumberParsing() {
+    }
+    
+    @Nullable
+    public static Integer parseInt(String s) {
+        int length = s.length();
+        if (length == 0) {
+            return null;
+        }
+        int i = 0;
+        char first = s.charAt(0);
+        boolean negative = first == '-';
+        if (negative || first == '+') {
+            if (length == 1) {
+                return null;
+            }
+            i = 1;
+        }
+        // Accumulated negatively, which also covers MIN_VALUE
+        int limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+        int multiplyLimit = limit / 10;
+        int result = 0;
+        for (; i < length; i++) {
+            int digit = Character.digit(s.charAt(i), 10);
+            if (digit < 0 || result < multiplyLimit) {
+                return null;
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                return null;
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+    
+    @Nullable
+    public static Long parseLong(String s) {
+        return parseLong(s, 10);
+    }
+    
+    @Nullable
+    public static Long parseLong(String s, int radix) {
+        int length = s.length();
+        if (length == 0) {
+            return null;
+        }
+        int i = 0;
+        char first = s.charAt(0);
+        boolean negative = first == '-';
+        if (negative || first == '+') {
+            if (length == 1) {
+                return null;
+            }
+            i = 1;
+        }
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multiplyLimit = limit / radix;
+        long result = 0;
+        for (; i < length; i++) {
+            int digit = Character.digit(s.charAt(i), radix);
+            if (digit < 0 || result < multiplyLimit) {
+                return null;
+            }
+            result *= radix;
+            if (result < limit + digit) {
+                return null;
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+    
+    @Nullable
+    public static Float parseFloat(String s) {
+        if (isDecimal(s)) {
+            return Float.parseFloat(s);
+        }
+        if (isHexCandidate(s)) {
+            try {
+                return Float.parseFloat(s);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+    
+    @Nullable
+    public static Double parseDouble(String s) {
+        if (isDecimal(s)) {
+            return Double.parseDouble(s);
+        }
+        if (isHexCandidate(s)) {
+            try {
+                return Double.parseDouble(s);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Whether the text is a decimal floating point literal, {@code NaN} or {@code Infinity}, as accepted by {@link Double#parseDouble(String)}.
+     */
+    private static boolean isDecimal(String s) {
+        int start = 0;
+        int end = s.length();
+        while (start < end && s.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && s.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start < end && (s.charAt(start) == '-' || s.charAt(start) == '+')) {
+            start++;
+        }
+        if (s.startsWith("NaN", start) && start + 3 == end || s.startsWith("Infinity", start) && start + 8 == end) {
+            return true;
+        }
+        int i = start;
+        int digits = 0;
+        while (i < end && isAsciiDigit(s.charAt(i))) {
+            i++;
+            digits++;
+        }
+        if (i < end && s.charAt(i) == '.') {
+            i++;
+            while (i < end && isAsciiDigit(s.charAt(i))) {
+                i++;
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        if (i < end && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+            i++;
+            if (i < end && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+                i++;
+            }
+            int exponentStart = i;
+            while (i < end && isAsciiDigit(s.charAt(i))) {
+                i++;
+            }
+            if (i == exponentStart) {
+                return false;
+            }
+        }
+        if (i < end && "fFdD".indexOf(s.charAt(i)) >= 0) {
+            i++;
+        }
+        return i == end;
+    }
+    
+    /**
+     * Hexadecimal literals are rare enough to be left to the throwing parser.
+     */
+    private static boolean isHexCandidate(String s) {
+        return s.indexOf('x') >= 0 || s.indexOf('X') >= 0;
+    }
+    
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * This file is part of Dawn Config (formerly 'Cloth Config').
+ * Copyright (C) 2020 - 2021 shedaniel
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.raxdiam.dawn.util;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Function;
+
+/**
+ * Remembers the result of parsing the last text, so text fields that are checked every frame only
+ * parse when their text changes. Not thread safe, meant to be used from the render thread.
+ *
+ * @param <V> the parsed value, {@code null} meaning the text isn't valid
+ */
+@ApiStatus.Internal
+public final class ParseCache<V> {
+    private final Function<String, V> parser;
+    private String text;
+    private V value;
+    
+    public ParseCache(Function<String, V> parser) {
+        this.parser = parser;
+    }
+    
+    @Nullable
+    public V get(String text) {
+        // Widgets return the same instance until their text changes, so this is usually an identity check
+        if (text != this.text && (this.text == null || !this.text.equals(text))) {
+            this.value = parser.apply(text);
+            this.text = text;
+        }
+        return value;
+    }
+}
@@ -41,6 +41,13 @@ public class Utils {
     }
     
     public static <V> V constructUnsafely(Class<V> cls) {
+        GeneratedConfigSupport<V> generated = GeneratedConfigs.find(cls);
+        if (generated != null) {
+            V instance = generated.createDefault();
+            if (instance != null) {
+                return instance;
+            }
+        }
         try {
             Constructor<V> constructor = cls.getDeclaredConstructor();
             constructor.setAccessible(true);
@@ -54,13 +61,8 @@ public class Utils {
         if (obj == null)
             return null;
         
-        try {
-            field.setAccessible(true);
-            //noinspection unchecked
-            return (V) field.get(obj);
-        } catch (ReflectiveOperationException e) {
-            throw new RuntimeException(e);
-        }
+        //noinspection unchecked
+        return (V) FieldAccessor.of(field).get(obj);
     }
     
     public static <V> V getUnsafely(Field field, Object obj, V defaultValue) {
@@ -74,12 +76,7 @@ public class Utils {
         if (obj == null)
             return;
         
-        try {
-            field.setAccessible(true);
-            field.set(obj, newValue);
-        } catch (ReflectiveOperationException e) {
-            throw new RuntimeException(e);
-        }
+        FieldAccessor.of(field).set(obj, newValue);
     }
     
     public static <T, K, U> Collector<T, ?, Map<K, U>> toLinkedMap(
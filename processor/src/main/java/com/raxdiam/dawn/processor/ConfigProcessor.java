@@ -0,0 +1,414 @@
+/*
+ * This file is part of Dawn Config (formerly 'Cloth Config').
+ * Copyright (C) 2020 - 2021 shedaniel
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.raxdiam.dawn.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Generates a {@code GeneratedConfigSupport} for every {@code @Config} class and the types of their
+ * {@code @TransitiveObject} and {@code @CollapsibleObject} fields, which Dawn Config then uses instead
+ * of reflection to construct them, access their fields and, for flat configs, serialize them.
+ * <p>
+ * Serialization is only generated for classes whose fields are all booleans, ints, longs, doubles
+ * or strings without Night Config annotations, anything else is left to Night Config.
+ * <p>
+ * The code for the fields is split across helper methods of {@value #CHUNK_SIZE} fields, and classes
+ * with more than {@value #MAX_FIELDS} fields are skipped, so large configs still compile. Mods using
+ * Dawn Config run this processor by adding the {@code processor} artifact to their annotation
+ * processor path, classes without generated code are handled by reflection.
+ */
+@SupportedAnnotationTypes(ConfigProcessor.CONFIG)
+public class ConfigProcessor extends AbstractProcessor {
+    static final String CONFIG = "com.raxdiam.dawn.annotation.Config";
+    private static final String TRANSITIVE_OBJECT = "com.raxdiam.dawn.annotation.ConfigEntry.Gui.TransitiveObject";
+    private static final String COLLAPSIBLE_OBJECT = "com.raxdiam.dawn.annotation.ConfigEntry.Gui.CollapsibleObject";
+    private static final String SUPPORT = "com.raxdiam.dawn.util.GeneratedConfigSupport";
+    private static final String SUFFIX = "_DawnGenerated";
+    /**
+     * The number of fields handled by each generated helper method.
+     */
+    private static final int CHUNK_SIZE = 256;
+    /**
+     * Classes with more fields are left to reflection, every field takes a few constant pool entries and the pool
+     * of the generated class is limited to 65535 of them.
+     */
+    private static final int MAX_FIELDS = 8192;
+    
+    private final Set<String> generated = new HashSet<>();
+    
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+    
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<TypeElement> roots = ElementFilter.typesIn(roundEnv.getRootElements());
+        Deque<TypeElement> queue = new ArrayDeque<>();
+        for (TypeElement annotation : annotations) {
+            queue.addAll(ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(annotation)));
+        }
+        while (!queue.isEmpty()) {
+            TypeElement type = queue.poll();
+            if (!roots.contains(outermost(type)) || !generated.add(processingEnv.getElementUtils().getBinaryName(type).toString())) {
+                continue;
+            }
+            generate(type);
+            for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+                if ((hasAnnotation(field, TRANSITIVE_OBJECT) || hasAnnotation(field, COLLAPSIBLE_OBJECT)) && field.asType().getKind() == TypeKind.DECLARED) {
+                    queue.add((TypeElement) ((DeclaredType) field.asType()).asElement());
+                }
+            }
+        }
+        return false;
+    }
+    
+    private void generate(TypeElement type) {
+        if (type.getKind() != ElementKind.CLASS || type.getNestingKind() == NestingKind.LOCAL || type.getNestingKind() == NestingKind.ANONYMOUS) {
+            return;
+        }
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+        if (!isAccessible(type, packageElement)) {
+            return;
+        }
+        String packageName = packageElement.getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)).replace('$', '_') + SUFFIX;
+        String typeName = erasedName(type.asType());
+        
+        List<VariableElement> fields = new ArrayList<>();
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            Set<Modifier> modifiers = field.getModifiers();
+            if (!modifiers.contains(Modifier.STATIC) && !modifiers.contains(Modifier.PRIVATE) && !modifiers.contains(Modifier.FINAL)
+                && isAccessible(field.asType(), packageElement)) {
+                fields.add(field);
+            }
+        }
+        
+        if (fields.size() > MAX_FIELDS) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "Not generating " + simpleName + ", " + binaryName + " has more than " + MAX_FIELDS + " fields and is accessed by reflection", type);
+            return;
+        }
+        
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("@javax.annotation.processing.Generated(\"").append(ConfigProcessor.class.getName()).append("\")\n");
+        source.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+        source.append("public final class ").append(simpleName).append(" implements ").append(SUPPORT).append("<").append(typeName).append("> {\n");
+        
+        source.append("    @Override\n");
+        source.append("    public ").append(typeName).append(" createDefault() {\n");
+        source.append("        return ").append(canConstruct(type, packageElement) ? "new " + typeName + "()" : "null").append(";\n");
+        source.append("    }\n\n");
+        
+        source.append("    @Override\n");
+        source.append("    public int fieldIndex(String name) {\n");
+        source.append("        int index;\n");
+        for (int chunk = 0; chunk < chunkCount(fields); chunk++) {
+            source.append("        if ((index = fieldIndex").append(chunk).append("(name)) >= 0) {\n");
+            source.append("            return index;\n");
+            source.append("        }\n");
+        }
+        source.append("        return -1;\n");
+        source.append("    }\n\n");
+        appendChunks(source, fields, "int fieldIndex%d(String name)", "        return switch (name) {\n", (i, field) ->
+                source.append("            case \"").append(field.getSimpleName()).append("\" -> ").append(i).append(";\n"),
+                "            default -> -1;\n        };\n");
+        
+        source.append("    @Override\n");
+        source.append("    public Object get(int field, ").append(typeName).append(" instance) {\n");
+        source.append("        return switch (field / ").append(CHUNK_SIZE).append(") {\n");
+        for (int chunk = 0; chunk < chunkCount(fields); chunk++) {
+            source.append("            case ").append(chunk).append(" -> get").append(chunk).append("(field, instance);\n");
+        }
+        source.append("            default -> throw new IndexOutOfBoundsException(field);\n");
+        source.append("        };\n");
+        source.append("    }\n\n");
+        appendChunks(source, fields, "Object get%d(int field, " + typeName + " instance)", "        return switch (field) {\n", (i, field) ->
+                source.append("            case ").append(i).append(" -> instance.").append(field.getSimpleName()).append(";\n"),
+                "            default -> throw new IndexOutOfBoundsException(field);\n        };\n");
+        
+        source.append("    @Override\n");
+        source.append("    public void set(int field, ").append(typeName).append(" instance, Object value) {\n");
+        source.append("        switch (field / ").append(CHUNK_SIZE).append(") {\n");
+        for (int chunk = 0; chunk < chunkCount(fields); chunk++) {
+            source.append("            case ").append(chunk).append(" -> set").append(chunk).append("(field, instance, value);\n");
+        }
+        source.append("            default -> throw new IndexOutOfBoundsException(field);\n");
+        source.append("        }\n");
+        source.append("    }\n\n");
+        appendChunks(source, fields, "void set%d(int field, " + typeName + " instance, Object value)", "        switch (field) {\n", (i, field) ->
+                source.append("            case ").append(i).append(" -> instance.").append(field.getSimpleName())
+                        .append(" = (").append(boxedName(field.asType())).append(") value;\n"),
+                "            default -> throw new IndexOutOfBoundsException(field);\n        }\n");
+        
+        appendSerialization(source, type, typeName, fields);
+        source.append("}\n");
+        
+        try (Writer writer = processingEnv.getFiler().createSourceFile((packageName.isEmpty() ? "" : packageName + ".") + simpleName, type).openWriter()) {
+            writer.write(source.toString());
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to generate " + simpleName + ": " + e, type);
+        }
+    }
+    
+    private void appendSerialization(StringBuilder source, TypeElement type, String typeName, List<VariableElement> fields) {
+        boolean serializable = isSerializable(type, fields);
+        int chunks = serializable ? chunkCount(fields) : 0;
+        source.append("    @Override\n");
+        source.append("    public boolean serialize(").append(typeName).append(" instance, java.util.function.BiConsumer<String, Object> output) {\n");
+        if (serializable) {
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                // Nulls are left to Night Config, which decides how they are written
+                source.append("        if (!hasValues").append(chunk).append("(instance)) {\n");
+                source.append("            return false;\n");
+                source.append("        }\n");
+            }
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                source.append("        write").append(chunk).append("(instance, output);\n");
+            }
+            source.append("        return true;\n");
+        } else {
+            source.append("        return false;\n");
+        }
+        source.append("    }\n\n");
+        if (serializable) {
+            appendChunks(source, fields, "boolean hasValues%d(" + typeName + " instance)", "", (i, field) -> {
+                if (!field.asType().getKind().isPrimitive() && !field.getModifiers().contains(Modifier.TRANSIENT)) {
+                    source.append("        if (instance.").append(field.getSimpleName()).append(" == null) {\n");
+                    source.append("            return false;\n");
+                    source.append("        }\n");
+                }
+            }, "        return true;\n");
+            appendChunks(source, fields, "void write%d(" + typeName + " instance, java.util.function.BiConsumer<String, Object> output)", "", (i, field) -> {
+                if (!field.getModifiers().contains(Modifier.TRANSIENT)) {
+                    source.append("        output.accept(\"").append(field.getSimpleName()).append("\", instance.").append(field.getSimpleName()).append(");\n");
+                }
+            }, "");
+        }
+        
+        source.append("    @Override\n");
+        source.append("    public boolean deserialize(java.util.function.Function<String, Object> input, ").append(typeName).append(" instance) {\n");
+        if (serializable) {
+            // Values of another type or out of range are left to reflection, before any field is assigned
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                source.append("        if (!canRead").append(chunk).append("(input)) {\n");
+                source.append("            return false;\n");
+                source.append("        }\n");
+            }
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                source.append("        read").append(chunk).append("(input, instance);\n");
+            }
+            source.append("        return true;\n");
+        } else {
+            source.append("        return false;\n");
+        }
+        source.append("    }\n");
+        if (serializable) {
+            source.append("\n");
+            appendChunks(source, fields, "boolean canRead%d(java.util.function.Function<String, Object> input)", "        Object value;\n", (i, field) -> {
+                if (!field.getModifiers().contains(Modifier.TRANSIENT)) {
+                    source.append("        if ((value = input.apply(\"").append(field.getSimpleName()).append("\")) != null && !(").append(checkValue(field.asType())).append(")) {\n");
+                    source.append("            return false;\n");
+                    source.append("        }\n");
+                }
+            }, "        return true;\n");
+            appendChunks(source, fields, "void read%d(java.util.function.Function<String, Object> input, " + typeName + " instance)", "        Object value;\n", (i, field) -> {
+                if (!field.getModifiers().contains(Modifier.TRANSIENT)) {
+                    source.append("        if ((value = input.apply(\"").append(field.getSimpleName()).append("\")) != null) {\n");
+                    source.append("            instance.").append(field.getSimpleName()).append(" = ").append(readValue(field.asType())).append(";\n");
+                    source.append("        }\n");
+                }
+            }, "");
+            // The last chunk ends with a blank line, the class does not
+            source.setLength(source.length() - 1);
+        }
+    }
+    
+    private static int chunkCount(List<VariableElement> fields) {
+        return (fields.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    }
+    
+    /**
+     * Appends one private static method per {@link #CHUNK_SIZE} fields, so no generated method grows past the size
+     * javac accepts however many fields the class has.
+     *
+     * @param signature the return type, name and parameters of the methods, {@code %d} is replaced by the chunk index
+     * @param fieldBody appends the code for a field, given its index in the whole class
+     */
+    private static void appendChunks(StringBuilder source, List<VariableElement> fields, String signature, String head, BiConsumer<Integer, VariableElement> fieldBody, String tail) {
+        for (int chunk = 0; chunk < chunkCount(fields); chunk++) {
+            source.append("    private static ").append(String.format(Locale.ROOT, signature, chunk)).append(" {\n");
+            source.append(head);
+            for (int i = chunk * CHUNK_SIZE; i < Math.min(fields.size(), (chunk + 1) * CHUNK_SIZE); i++) {
+                fieldBody.accept(i, fields.get(i));
+            }
+            source.append(tail);
+            source.append("    }\n\n");
+        }
+    }
+    
+    /**
+     * Whether all serialized fields are declared by the class itself, accessible and of a type the generated code can read and write.
+     */
+    private boolean isSerializable(TypeElement type, List<VariableElement> fields) {
+        TypeMirror superclass = type.getSuperclass();
+        while (superclass.getKind() == TypeKind.DECLARED) {
+            TypeElement superElement = (TypeElement) ((DeclaredType) superclass).asElement();
+            if (superElement.getQualifiedName().contentEquals("java.lang.Object")) {
+                break;
+            }
+            for (VariableElement field : ElementFilter.fieldsIn(superElement.getEnclosedElements())) {
+                if (!field.getModifiers().contains(Modifier.STATIC)) {
+                    return false;
+                }
+            }
+            superclass = superElement.getSuperclass();
+        }
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            Set<Modifier> modifiers = field.getModifiers();
+            if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)) {
+                continue;
+            }
+            if (!fields.contains(field) || readValue(field.asType()) == null) {
+                return false;
+            }
+            for (AnnotationMirror annotation : field.getAnnotationMirrors()) {
+                if (annotation.getAnnotationType().toString().startsWith("com.electronwill.nightconfig.")) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * @return the expression reading {@code value} as the type, or {@code null} if the type isn't supported
+     */
+    private String readValue(TypeMirror type) {
+        return switch (boxedName(type)) {
+            case "java.lang.Boolean" -> "(Boolean) value";
+            case "java.lang.Integer" -> "((Number) value).intValue()";
+            case "java.lang.Long" -> "((Number) value).longValue()";
+            case "java.lang.Double" -> "((Number) value).doubleValue()";
+            case "java.lang.String" -> "(String) value";
+            default -> null;
+        };
+    }
+    
+    /**
+     * @return the condition checking that {@code value} can be read as the type by {@link #readValue(TypeMirror)} without losing anything
+     */
+    private String checkValue(TypeMirror type) {
+        return switch (boxedName(type)) {
+            case "java.lang.Boolean" -> "value instanceof Boolean";
+            case "java.lang.Integer" -> "value instanceof Integer || value instanceof Short || value instanceof Byte"
+                                        + " || value instanceof Long number && number == number.intValue()";
+            case "java.lang.Long" -> "value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte";
+            case "java.lang.Double" -> "value instanceof Number";
+            case "java.lang.String" -> "value instanceof String";
+            default -> throw new IllegalArgumentException("Unsupported type " + type);
+        };
+    }
+    
+    private boolean canConstruct(TypeElement type, PackageElement packageElement) {
+        if (type.getModifiers().contains(Modifier.ABSTRACT)
+            || type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC)) {
+            return false;
+        }
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty()) {
+                return !constructor.getModifiers().contains(Modifier.PRIVATE) && constructor.getThrownTypes().stream()
+                        .allMatch(thrown -> processingEnv.getTypeUtils().isAssignable(thrown, processingEnv.getElementUtils().getTypeElement("java.lang.RuntimeException").asType())
+                                            || processingEnv.getTypeUtils().isAssignable(thrown, processingEnv.getElementUtils().getTypeElement("java.lang.Error").asType()));
+            }
+        }
+        return false;
+    }
+    
+    private boolean isAccessible(TypeMirror type, PackageElement from) {
+        return switch (type.getKind()) {
+            case ARRAY -> isAccessible(((ArrayType) type).getComponentType(), from);
+            case DECLARED -> isAccessible((TypeElement) ((DeclaredType) type).asElement(), from);
+            // Fields of a type variable can't be assigned from their erasure
+            default -> type.getKind().isPrimitive();
+        };
+    }
+    
+    private boolean isAccessible(TypeElement type, PackageElement from) {
+        boolean samePackage = processingEnv.getElementUtils().getPackageOf(type).equals(from);
+        for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            Set<Modifier> modifiers = element.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE) || !modifiers.contains(Modifier.PUBLIC) && !samePackage) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private String erasedName(TypeMirror type) {
+        return switch (type.getKind()) {
+            case ARRAY -> erasedName(((ArrayType) type).getComponentType()) + "[]";
+            case DECLARED -> ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString();
+            case TYPEVAR -> erasedName(processingEnv.getTypeUtils().erasure(type));
+            default -> type.getKind().name().toLowerCase(Locale.ROOT);
+        };
+    }
+    
+    private String boxedName(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return processingEnv.getTypeUtils().boxedClass(processingEnv.getTypeUtils().getPrimitiveType(type.getKind())).getQualifiedName().toString();
+        }
+        return erasedName(type);
+    }
+    
+    private static TypeElement outermost(TypeElement type) {
+        Element element = type;
+        while (element.getEnclosingElement() instanceof TypeElement enclosing) {
+            element = enclosing;
+        }
+        return (TypeElement) element;
+    }
+    
+    private static boolean hasAnnotation(Element element, String name) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}